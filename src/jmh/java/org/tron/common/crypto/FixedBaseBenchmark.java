@@ -0,0 +1,76 @@
+package org.tron.common.crypto;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.spongycastle.crypto.digests.SHA256Digest;
+import org.spongycastle.crypto.params.ECPrivateKeyParameters;
+import org.spongycastle.crypto.signers.ECDSASigner;
+import org.spongycastle.crypto.signers.HMacDSAKCalculator;
+import org.spongycastle.math.ec.ECPoint;
+import org.tron.common.crypto.ECKey.ECDSASignature;
+import org.tron.common.utils.Utils;
+
+/**
+ * {@link FixedBase} against the generic paths it replaced: public key derivation with
+ * {@code G.multiply}, and signing with {@code ECDSASigner} followed by the recovery id search.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FixedBaseBenchmark {
+
+  private BigInteger privateKey;
+  private byte[] publicKey;
+  private byte[] hash;
+  private ECDSASigner signer;
+  private HMacDSAKCalculator kCalculator;
+
+  @Setup
+  public void setup() {
+    privateKey = new BigInteger(1, new ECKey(Utils.getRandom()).getPrivKeyBytes());
+    publicKey = ECKey.publicKeyFromPrivate(privateKey, false);
+    hash = new byte[32];
+    Utils.getRandom().nextBytes(hash);
+    signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
+    kCalculator = new HMacDSAKCalculator(new SHA256Digest());
+  }
+
+  @Benchmark
+  public ECPoint publicKeyGeneric() {
+    return ECKey.CURVE.getG().multiply(privateKey).normalize();
+  }
+
+  @Benchmark
+  public ECPoint publicKeyFixedBase() {
+    return FixedBase.multiplyG(privateKey);
+  }
+
+  @Benchmark
+  public ECDSASignature signGeneric() {
+    signer.init(true, new ECPrivateKeyParameters(privateKey, ECKey.CURVE));
+    BigInteger[] components = signer.generateSignature(hash);
+    ECDSASignature signature = new ECDSASignature(components[0], components[1])
+        .toCanonicalised();
+    for (int recId = 0; recId < 4; recId++) {
+      byte[] recovered = ECKey.recoverPubBytesFromSignature(recId, signature, hash);
+      if (recovered != null && Arrays.equals(recovered, publicKey)) {
+        signature.v = (byte) (recId + 27);
+        break;
+      }
+    }
+    return signature;
+  }
+
+  @Benchmark
+  public ECDSASignature signFixedBase() {
+    return FixedBase.sign(privateKey, hash, kCalculator);
+  }
+}
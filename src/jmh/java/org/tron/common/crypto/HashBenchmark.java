@@ -0,0 +1,75 @@
+package org.tron.common.crypto;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.common.utils.Utils;
+
+/**
+ * Hashes of the transaction and address paths.
+ *
+ * <p>The state is shared by the benchmark threads the way the digests are shared by the sender
+ * threads, so contention shows up when running with {@code -PjmhThreads}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HashBenchmark {
+
+  /**
+   * An address is 21 bytes, the raw data of a transfer about 100.
+   */
+  @Param({"21", "128", "1024"})
+  public int size;
+
+  private byte[] data;
+
+  @Setup
+  public void setup() {
+    data = new byte[size];
+    Utils.getRandom().nextBytes(data);
+  }
+
+  @Benchmark
+  public byte[] sha256() {
+    return Hash.sha256(data);
+  }
+
+  @Benchmark
+  public byte[] sha3() {
+    return Hash.sha3(data);
+  }
+
+  @Benchmark
+  public byte[] sha256Into(Output output) {
+    Hash.sha256(data, 0, data.length, output.hash, 0);
+    return output.hash;
+  }
+
+  @Benchmark
+  public byte[] sha3Into(Output output) {
+    Hash.sha3(data, 0, data.length, output.hash, 0);
+    return output.hash;
+  }
+
+  @Benchmark
+  public Sha256Hash sha256HashOf() {
+    return Sha256Hash.of(data);
+  }
+
+  /**
+   * Caller owned output, one per thread like in the sender threads.
+   */
+  @State(Scope.Thread)
+  public static class Output {
+
+    public final byte[] hash = new byte[Hash.HASH_256_LENGTH];
+  }
+}
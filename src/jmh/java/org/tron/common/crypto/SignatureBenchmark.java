@@ -0,0 +1,44 @@
+package org.tron.common.crypto;
+
+import java.security.SignatureException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.tron.common.crypto.ECKey.ECDSASignature;
+import org.tron.common.utils.Utils;
+
+/**
+ * Signing a transaction hash and recovering the signer address from it, as the node does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SignatureBenchmark {
+
+  private ECKey key;
+  private byte[] hash;
+  private String signatureBase64;
+
+  @Setup
+  public void setup() {
+    key = new ECKey(Utils.getRandom());
+    hash = new byte[32];
+    Utils.getRandom().nextBytes(hash);
+    signatureBase64 = key.sign(hash).toBase64();
+  }
+
+  @Benchmark
+  public ECDSASignature sign() {
+    return key.sign(hash);
+  }
+
+  @Benchmark
+  public byte[] signatureToAddress() throws SignatureException {
+    return ECKey.signatureToAddress(hash, signatureBase64);
+  }
+}
@@ -0,0 +1,39 @@
+package org.tron.common.utils;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.tron.common.crypto.ECKey;
+
+/**
+ * Address encoding, used whenever keys or addresses are read from or written to files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class Base58Benchmark {
+
+  private byte[] address;
+  private String encoded;
+
+  @Setup
+  public void setup() {
+    address = new ECKey(Utils.getRandom()).getAddress();
+    encoded = Base58.encode58Check(address);
+  }
+
+  @Benchmark
+  public String encode58Check() {
+    return Base58.encode58Check(address);
+  }
+
+  @Benchmark
+  public byte[] decodeFromBase58Check() {
+    return Base58.decodeFromBase58Check(encoded);
+  }
+}
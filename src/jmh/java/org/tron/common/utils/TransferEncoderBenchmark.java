@@ -0,0 +1,64 @@
+package org.tron.common.utils;
+
+import com.google.protobuf.ByteString;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.tron.api.GrpcAPI.BlockReference;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.crypto.KeyTable;
+import org.tron.protos.Protocol.Transaction;
+import org.tron.service.WalletClient;
+
+/**
+ * A signed transfer built through protobuf, as the generator does, against
+ * {@link TransferEncoder}. Run with {@code -prof gc} to compare the allocations too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TransferEncoderBenchmark {
+
+  private static final long TIMESTAMP = 1_539_000_000_000_000_000L;
+
+  private KeyTable keys;
+  private KeyTable.Signer signer;
+  private TransactionBuilder builder;
+  private TransferEncoder encoder;
+  private byte[] owner;
+  private byte[] to;
+
+  @Setup
+  public void setup() {
+    keys = KeyTable.of(Collections.singletonList(new ECKey(Utils.getRandom())));
+    signer = keys.newSigner();
+    byte[] blockHash = new byte[32];
+    Utils.getRandom().nextBytes(blockHash);
+    builder = new TransactionBuilder(BlockReference.newBuilder().setBlockNum(1_000_000)
+        .setBlockHash(ByteString.copyFrom(blockHash)).build(),
+        TransactionBuilder.DEFAULT_EXPIRATION);
+    encoder = new TransferEncoder(builder);
+    owner = keys.getAddress(0);
+    to = new ECKey(Utils.getRandom()).getAddress();
+  }
+
+  @Benchmark
+  public byte[] protobuf() {
+    Transaction transaction = builder
+        .createTransaction(WalletClient.createTransferContract(to, owner, 1));
+    transaction = transaction.toBuilder()
+        .setRawData(transaction.getRawData().toBuilder().setTimestamp(TIMESTAMP)).build();
+    return signer.sign(0, transaction).toByteArray();
+  }
+
+  @Benchmark
+  public int encoder() {
+    return encoder.encode(owner, 0, to, 0, 1, TIMESTAMP).sign(signer, 0).getLength();
+  }
+}
@@ -0,0 +1,21 @@
+package org.tron.Validator;
+
+import com.beust.jcommander.IParameterValidator;
+import com.beust.jcommander.ParameterException;
+
+public class NonNegativeDoubleValidator implements IParameterValidator {
+
+  @Override
+  public void validate(String name, String value) throws ParameterException {
+    double v;
+    try {
+      v = Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      throw new ParameterException("Parameter " + name + " should be a number (found " + value + ")");
+    }
+    // !(v >= 0) also refuses NaN
+    if (!(v >= 0) || Double.isInfinite(v)) {
+      throw new ParameterException("Parameter " + name + " should not be negative (found " + value + ")");
+    }
+  }
+}
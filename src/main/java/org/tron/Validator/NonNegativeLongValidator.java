@@ -0,0 +1,20 @@
+package org.tron.Validator;
+
+import com.beust.jcommander.IParameterValidator;
+import com.beust.jcommander.ParameterException;
+
+public class NonNegativeLongValidator implements IParameterValidator {
+
+  @Override
+  public void validate(String name, String value) throws ParameterException {
+    long v;
+    try {
+      v = Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      throw new ParameterException("Parameter " + name + " should be an integer (found " + value + ")");
+    }
+    if (v < 0) {
+      throw new ParameterException("Parameter " + name + " should not be negative (found " + value + ")");
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package org.tron.common.corpus;
+
+/**
+ * Layout of a transaction corpus file.
+ *
+ * <pre>
+ * header   magic(4) version(4) count(8) indexOffset(8) reserved(8)
+ * data     serialized transactions, back to back, no length prefix
+ * index    count + 1 offsets(8), entry i is where transaction i starts, the last one ends the data
+ * </pre>
+ *
+ * All numbers are big endian.
+ */
+interface CorpusFormat {
+
+  int MAGIC = 0x4C565243; // "LVRC"
+  int VERSION = 1;
+  int HEADER_SIZE = 32;
+  /**
+   * java-tron rejects transactions above 500KB, anything bigger is a broken record.
+   */
+  int MAX_RECORD_SIZE = 1024 * 1024;
+}
@@ -0,0 +1,181 @@
+package org.tron.common.corpus;
+
+import static org.tron.common.corpus.CorpusFormat.HEADER_SIZE;
+import static org.tron.common.corpus.CorpusFormat.MAGIC;
+import static org.tron.common.corpus.CorpusFormat.MAX_RECORD_SIZE;
+import static org.tron.common.corpus.CorpusFormat.VERSION;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.tron.protos.Protocol.Transaction;
+
+/**
+ * Read only, memory mapped view of a corpus file, see {@link CorpusFormat}. Thread safe.
+ *
+ * <p>Nothing is loaded on heap when opening: transactions are sliced out of the mapping on demand,
+ * so the heap stays small whatever the size of the corpus.
+ */
+public class CorpusReader implements Closeable {
+
+  /**
+   * A single mapping can not exceed 2GB, bigger files are mapped in chunks.
+   */
+  private static final long CHUNK_SIZE = 1L << 30;
+
+  private final RandomAccessFile file;
+  private final long count;
+  private final Mapping data;
+  private final Mapping index;
+
+  public CorpusReader(File file) throws IOException {
+    this.file = new RandomAccessFile(file, "r");
+    FileChannel channel = this.file.getChannel();
+
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    channel.read(header, 0);
+    header.flip();
+    if (header.getInt() != MAGIC) {
+      throw new IOException(file + " is not a transaction corpus");
+    }
+    int version = header.getInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported corpus version " + version);
+    }
+    this.count = header.getLong();
+    long indexOffset = header.getLong();
+
+    // a record never spans two chunks because every chunk overlaps the next one by one record
+    this.data = new Mapping(channel, HEADER_SIZE, indexOffset - HEADER_SIZE, MAX_RECORD_SIZE);
+    this.index = new Mapping(channel, indexOffset, (count + 1) * 8, 8);
+  }
+
+  /**
+   * @return true if the file starts with the corpus magic, false for the old length delimited
+   * files
+   */
+  public static boolean isCorpus(File file) throws IOException {
+    if (file.length() < HEADER_SIZE) {
+      return false;
+    }
+    try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+      return in.readInt() == MAGIC;
+    }
+  }
+
+  public long size() {
+    return count;
+  }
+
+  /**
+   * @return the serialized transaction, backed by the mapping, no bytes are copied
+   */
+  public ByteBuffer slice(long i) {
+    if (i < 0 || i >= count) {
+      throw new IndexOutOfBoundsException("Transaction " + i + " of " + count);
+    }
+    long start = index.getLong(i * 8) - HEADER_SIZE;
+    long end = index.getLong((i + 1) * 8) - HEADER_SIZE;
+    return data.slice(start, (int) (end - start));
+  }
+
+  public Transaction get(long i) throws InvalidProtocolBufferException {
+    return Transaction.parseFrom(slice(i));
+  }
+
+  /**
+   * Walks the transactions {@code start, start + step, start + 2 * step ...}, sender threads use
+   * it to share one corpus without coordination.
+   */
+  public Iterator<Transaction> iterator(long start, long step) {
+    return new Iterator<Transaction>() {
+      private long next = start;
+
+      @Override
+      public boolean hasNext() {
+        return next < count;
+      }
+
+      @Override
+      public Transaction next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        try {
+          return get(next);
+        } catch (InvalidProtocolBufferException e) {
+          throw new IllegalStateException("Broken transaction " + next, e);
+        } finally {
+          next += step;
+        }
+      }
+    };
+  }
+
+  /**
+   * Same walk as {@link #iterator(long, long)} over the serialized transactions, nothing is
+   * parsed.
+   */
+  public Iterator<ByteBuffer> slices(long start, long step) {
+    return new Iterator<ByteBuffer>() {
+      private long next = start;
+
+      @Override
+      public boolean hasNext() {
+        return next < count;
+      }
+
+      @Override
+      public ByteBuffer next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        ByteBuffer slice = slice(next);
+        next += step;
+        return slice;
+      }
+    };
+  }
+
+  @Override
+  public void close() throws IOException {
+    file.close();
+  }
+
+  private static class Mapping {
+
+    private final MappedByteBuffer[] chunks;
+
+    Mapping(FileChannel channel, long offset, long length, int overlap) throws IOException {
+      int chunkCount = (int) Math.max(1, (length + CHUNK_SIZE - 1) / CHUNK_SIZE);
+      chunks = new MappedByteBuffer[chunkCount];
+      for (int i = 0; i < chunkCount; i++) {
+        long start = i * CHUNK_SIZE;
+        long size = Math.min(CHUNK_SIZE + overlap, length - start);
+        chunks[i] = channel.map(MapMode.READ_ONLY, offset + start, size);
+      }
+    }
+
+    long getLong(long position) {
+      return chunks[(int) (position / CHUNK_SIZE)].getLong((int) (position % CHUNK_SIZE));
+    }
+
+    ByteBuffer slice(long position, int length) {
+      ByteBuffer buffer = chunks[(int) (position / CHUNK_SIZE)].duplicate();
+      int start = (int) (position % CHUNK_SIZE);
+      buffer.limit(start + length);
+      buffer.position(start);
+      return buffer.slice();
+    }
+  }
+}
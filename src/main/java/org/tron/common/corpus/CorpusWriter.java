@@ -0,0 +1,90 @@
+package org.tron.common.corpus;
+
+import static org.tron.common.corpus.CorpusFormat.HEADER_SIZE;
+import static org.tron.common.corpus.CorpusFormat.MAGIC;
+import static org.tron.common.corpus.CorpusFormat.MAX_RECORD_SIZE;
+import static org.tron.common.corpus.CorpusFormat.VERSION;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import org.tron.protos.Protocol.Transaction;
+
+/**
+ * Writes a corpus file, see {@link CorpusFormat}. Not thread safe.
+ *
+ * <p>Offsets are spooled to a side file while writing, so the writer does not keep the index on
+ * heap whatever the number of transactions.
+ */
+public class CorpusWriter implements Closeable {
+
+  private final File file;
+  private final File indexFile;
+  private final DataOutputStream data;
+  private final DataOutputStream index;
+  private long position = HEADER_SIZE;
+  private long count = 0;
+
+  public CorpusWriter(File file) throws IOException {
+    this.file = file;
+    this.indexFile = new File(file.getPath() + ".idx");
+    this.data = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+    this.index = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(indexFile), 1 << 16));
+    // patched on close
+    data.write(new byte[HEADER_SIZE]);
+  }
+
+  public void write(Transaction transaction) throws IOException {
+    write(transaction.toByteArray());
+  }
+
+  public void write(byte[] bytes) throws IOException {
+    write(bytes, 0, bytes.length);
+  }
+
+  public void write(byte[] bytes, int offset, int length) throws IOException {
+    if (length > MAX_RECORD_SIZE) {
+      throw new IllegalArgumentException("Transaction of " + length + " bytes is too big");
+    }
+    index.writeLong(position);
+    data.write(bytes, offset, length);
+    position += length;
+    count++;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  @Override
+  public void close() throws IOException {
+    index.writeLong(position);
+    index.close();
+    data.close();
+
+    try (RandomAccessFile out = new RandomAccessFile(file, "rw");
+        RandomAccessFile in = new RandomAccessFile(indexFile, "r")) {
+      FileChannel outChannel = out.getChannel();
+      FileChannel inChannel = in.getChannel();
+      long transferred = 0;
+      long size = inChannel.size();
+      while (transferred < size) {
+        transferred += inChannel.transferTo(transferred, size - transferred,
+            outChannel.position(position + transferred));
+      }
+
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      header.putInt(MAGIC).putInt(VERSION).putLong(count).putLong(position).putLong(0);
+      header.flip();
+      outChannel.write(header, 0);
+    }
+    indexFile.delete();
+  }
+}
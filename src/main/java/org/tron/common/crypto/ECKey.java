@@ -96,6 +96,12 @@ public class ECKey implements Serializable {
       ("fffffffffffffffffffffffffffffffebaaedce6af48a03bbfd25e8cd0364141", 16);
   private static final SecureRandom secureRandom;
   private static final long serialVersionUID = -728224901792295832L;
+  /**
+   * The RFC 6979 k calculator is re-initialised with the key on every use, so one instance per
+   * thread is enough and saves building its HMAC-DRBG for every signature.
+   */
+  private static final ThreadLocal<HMacDSAKCalculator> kCalculator = ThreadLocal
+      .withInitial(() -> new HMacDSAKCalculator(new SHA256Digest()));
 
   static {
     // All clients must agree on the curve to use by agreement.
@@ -125,6 +131,7 @@ public class ECKey implements Serializable {
   // Transient because it's calculated on demand.
   transient private byte[] pubKeyHash;
   transient private byte[] nodeId;
+  transient private BigInteger privKeyD;
 
   /**
    * Generates an entirely new keypair. <p> BouncyCastle will be used as the Java Security Provider
@@ -274,7 +281,7 @@ public class ECKey implements Serializable {
    * @return -
    */
   public static ECKey fromPrivate(BigInteger privKey) {
-    return new ECKey(privKey, CURVE.getG().multiply(privKey));
+    return new ECKey(privKey, FixedBase.multiplyG(privKey));
   }
 
   /**
@@ -350,7 +357,7 @@ public class ECKey implements Serializable {
    */
   public static byte[] publicKeyFromPrivate(BigInteger privKey, boolean
       compressed) {
-    ECPoint point = CURVE.getG().multiply(privKey);
+    ECPoint point = FixedBase.multiplyG(privKey);
     return point.getEncoded(compressed);
   }
 
@@ -362,8 +369,9 @@ public class ECKey implements Serializable {
    */
   public static byte[] computeAddress(byte[] pubBytes) {
 
-    return Hash.sha3omit12(
-        Arrays.copyOfRange(pubBytes, 1, pubBytes.length));
+    byte[] address = new byte[Hash.ADDRESS_LENGTH];
+    Hash.sha3omit12(pubBytes, 1, pubBytes.length - 1, address, 0);
+    return address;
   }
 
   /**
@@ -862,14 +870,11 @@ public class ECKey implements Serializable {
       throw new MissingPrivateKeyException();
     }
     if (privKey instanceof BCECPrivateKey) {
-      ECDSASigner signer = new ECDSASigner(new HMacDSAKCalculator(new
-          SHA256Digest()));
-      ECPrivateKeyParameters privKeyParams = new ECPrivateKeyParameters
-          (((BCECPrivateKey) privKey).getD(), CURVE);
-      signer.init(true, privKeyParams);
-      BigInteger[] components = signer.generateSignature(input);
-      return new ECDSASignature(components[0], components[1])
-          .toCanonicalised();
+      if (privKeyD == null) {
+        privKeyD = ((BCECPrivateKey) privKey).getD();
+      }
+      // already canonical, with the recovery id set
+      return FixedBase.sign(privKeyD, input, kCalculator.get());
     } else {
       try {
         final Signature ecSig = ECSignatureFactory.getRawInstance
@@ -894,6 +899,9 @@ public class ECKey implements Serializable {
    */
   public ECDSASignature sign(byte[] messageHash) {
     ECDSASignature sig = doSign(messageHash);
+    if (sig.v != 0) {
+      return sig;
+    }
     // Now we have to work backwards to figure out the recId needed to
     // recover the signature.
     int recId = -1;
@@ -0,0 +1,78 @@
+package org.tron.common.crypto;
+
+import java.math.BigInteger;
+import org.spongycastle.crypto.signers.DSAKCalculator;
+import org.spongycastle.math.ec.ECMultiplier;
+import org.spongycastle.math.ec.ECPoint;
+import org.spongycastle.math.ec.FixedPointCombMultiplier;
+import org.tron.common.crypto.ECKey.ECDSASignature;
+
+/**
+ * Multiplications of the secp256k1 generator through a precomputed comb table.
+ *
+ * <p>The table is built once when the class is loaded and only read afterwards, every thread
+ * shares it. The comb splits the scalar in columns of the comb width and doubles once per column
+ * instead of once per scalar bit, with one table addition per column: about 256 / width
+ * doublings and additions where the generic multiplier behind {@code CURVE.getG().multiply} does
+ * 256 doublings. It is used for public key derivation and for the k*G of signing.
+ *
+ * <p>{@link #sign} also keeps the point R it computes: its parity and size give the recovery id
+ * directly, where {@link ECKey#sign} used to recover up to four public keys to find it.
+ */
+public class FixedBase {
+
+  private static final ECMultiplier COMB = new FixedPointCombMultiplier();
+
+  static {
+    // the comb table is attached to the generator by its first multiplication
+    multiplyG(BigInteger.ONE);
+  }
+
+  private FixedBase() {
+  }
+
+  /**
+   * @return {@code k * G}, normalized
+   */
+  public static ECPoint multiplyG(BigInteger k) {
+    return COMB.multiply(ECKey.CURVE.getG(), k).normalize();
+  }
+
+  /**
+   * ECDSA signature of a 32 bytes hash, canonical and with its recovery id.
+   *
+   * <p>Same signature as {@code ECDSASigner} with the same k calculator: with the RFC 6979
+   * {@code HMacDSAKCalculator} it is bit for bit the signature {@link ECKey#sign} always produced.
+   *
+   * @param kCalculator deterministic calculator, confined to the calling thread
+   */
+  public static ECDSASignature sign(BigInteger privateKey, byte[] hash,
+      DSAKCalculator kCalculator) {
+    BigInteger n = ECKey.CURVE.getN();
+    BigInteger e = new BigInteger(1, hash);
+    kCalculator.init(n, privateKey, hash);
+    while (true) {
+      BigInteger k = kCalculator.nextK();
+      ECPoint p = multiplyG(k);
+      BigInteger x = p.getAffineXCoord().toBigInteger();
+      BigInteger r = x.mod(n);
+      if (r.signum() == 0) {
+        continue;
+      }
+      BigInteger s = k.modInverse(n).multiply(e.add(privateKey.multiply(r))).mod(n);
+      if (s.signum() == 0) {
+        continue;
+      }
+      // bit 0: parity of R.y, bit 1: R.x did not fit in r
+      int recId = (p.getAffineYCoord().testBitZero() ? 1 : 0) | (x.compareTo(n) >= 0 ? 2 : 0);
+      if (s.compareTo(ECKey.HALF_CURVE_ORDER) > 0) {
+        // canonical s, the signature now matches -R
+        s = n.subtract(s);
+        recId ^= 1;
+      }
+      ECDSASignature signature = new ECDSASignature(r, s);
+      signature.v = (byte) (recId + 27);
+      return signature;
+    }
+  }
+}
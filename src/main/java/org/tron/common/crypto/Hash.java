@@ -20,6 +20,8 @@ package org.tron.common.crypto;
 
 import static java.util.Arrays.copyOfRange;
 
+import java.nio.ByteBuffer;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.Provider;
@@ -37,56 +39,89 @@ public class Hash {
   private static final String HASH_256_ALGORITHM_NAME;
   private static final String HASH_512_ALGORITHM_NAME;
 
-  private static final MessageDigest sha256digest;
+  public static final int HASH_256_LENGTH = 32;
+  public static final int HASH_512_LENGTH = 64;
+  public static final int ADDRESS_LENGTH = 21;
 
   static {
     Security.addProvider(TronCastleProvider.getInstance());
     CRYPTO_PROVIDER = Security.getProvider("SC");
     HASH_256_ALGORITHM_NAME = "TRON-KECCAK-256";
     HASH_512_ALGORITHM_NAME = "TRON-KECCAK-512";
+  }
+
+  /**
+   * One engine per thread and algorithm, hashing from parallel signers must not serialize on a
+   * shared engine nor look the provider up on every call.
+   */
+  private static final ThreadLocal<MessageDigest> sha256digest = ThreadLocal
+      .withInitial(() -> newDigest("SHA-256", null));
+  private static final ThreadLocal<MessageDigest> sha3digest = ThreadLocal
+      .withInitial(() -> newDigest(HASH_256_ALGORITHM_NAME, CRYPTO_PROVIDER));
+  private static final ThreadLocal<MessageDigest> sha512digest = ThreadLocal
+      .withInitial(() -> newDigest(HASH_512_ALGORITHM_NAME, CRYPTO_PROVIDER));
+  /**
+   * Scratch for the keccak hash of {@link #sha3omit12(byte[], int, int, byte[], int)}.
+   */
+  private static final ThreadLocal<byte[]> sha3scratch = ThreadLocal
+      .withInitial(() -> new byte[HASH_256_LENGTH]);
+
+  private static MessageDigest newDigest(String algorithm, Provider provider) {
     try {
-      sha256digest = MessageDigest.getInstance("SHA-256");
+      return provider == null ? MessageDigest.getInstance(algorithm)
+          : MessageDigest.getInstance(algorithm, provider);
     } catch (NoSuchAlgorithmException e) {
       LOG.error("Can't initialize HashUtils", e);
       throw new RuntimeException(e); // Can't happen.
     }
+  }
 
+  /**
+   * Finishes the digest into {@code out}, which must have room for the whole hash.
+   */
+  private static void digest(MessageDigest digest, byte[] out, int outOffset) {
+    try {
+      digest.digest(out, outOffset, digest.getDigestLength());
+    } catch (DigestException e) {
+      throw new IllegalArgumentException(e);
+    }
   }
 
   /**
    * @param input - data for hashing
    * @return - sha256 hash of the data
    */
-  public synchronized static byte[] sha256(byte[] input) {
-    return sha256digest.digest(input);
+  public static byte[] sha256(byte[] input) {
+    return sha256digest.get().digest(input);
   }
 
-  public static byte[] sha3(byte[] input) {
-    MessageDigest digest;
-    try {
-      digest = MessageDigest.getInstance(HASH_256_ALGORITHM_NAME,
-          CRYPTO_PROVIDER);
-      digest.update(input);
-      return digest.digest();
-    } catch (NoSuchAlgorithmException e) {
-      LOG.error("Can't find such algorithm", e);
-      throw new RuntimeException(e);
-    }
+  /**
+   * sha256 of {@code input[offset, offset + length)}, written to {@code out} at {@code outOffset}.
+   */
+  public static void sha256(byte[] input, int offset, int length, byte[] out, int outOffset) {
+    MessageDigest digest = sha256digest.get();
+    digest.update(input, offset, length);
+    digest(digest, out, outOffset);
+  }
 
+  /**
+   * sha256 of the remaining bytes of {@code input}, its position is left untouched.
+   */
+  public static void sha256(ByteBuffer input, byte[] out, int outOffset) {
+    MessageDigest digest = sha256digest.get();
+    digest.update(input.duplicate());
+    digest(digest, out, outOffset);
+  }
+
+  public static byte[] sha3(byte[] input) {
+    return sha3digest.get().digest(input);
   }
 
   public static byte[] sha3(byte[] input1, byte[] input2) {
-    MessageDigest digest;
-    try {
-      digest = MessageDigest.getInstance(HASH_256_ALGORITHM_NAME,
-          CRYPTO_PROVIDER);
-      digest.update(input1, 0, input1.length);
-      digest.update(input2, 0, input2.length);
-      return digest.digest();
-    } catch (NoSuchAlgorithmException e) {
-      LOG.error("Can't find such algorithm", e);
-      throw new RuntimeException(e);
-    }
+    MessageDigest digest = sha3digest.get();
+    digest.update(input1, 0, input1.length);
+    digest.update(input2, 0, input2.length);
+    return digest.digest();
   }
 
   /**
@@ -98,29 +133,42 @@ public class Hash {
    * @return - keccak hash of the chunk
    */
   public static byte[] sha3(byte[] input, int start, int length) {
-    MessageDigest digest;
-    try {
-      digest = MessageDigest.getInstance(HASH_256_ALGORITHM_NAME,
-          CRYPTO_PROVIDER);
-      digest.update(input, start, length);
-      return digest.digest();
-    } catch (NoSuchAlgorithmException e) {
-      LOG.error("Can't find such algorithm", e);
-      throw new RuntimeException(e);
-    }
+    MessageDigest digest = sha3digest.get();
+    digest.update(input, start, length);
+    return digest.digest();
+  }
+
+  /**
+   * keccak-256 of {@code input[offset, offset + length)}, written to {@code out} at
+   * {@code outOffset}.
+   */
+  public static void sha3(byte[] input, int offset, int length, byte[] out, int outOffset) {
+    MessageDigest digest = sha3digest.get();
+    digest.update(input, offset, length);
+    digest(digest, out, outOffset);
+  }
+
+  /**
+   * keccak-256 of the remaining bytes of {@code input}, its position is left untouched.
+   */
+  public static void sha3(ByteBuffer input, byte[] out, int outOffset) {
+    MessageDigest digest = sha3digest.get();
+    digest.update(input.duplicate());
+    digest(digest, out, outOffset);
   }
 
   public static byte[] sha512(byte[] input) {
-    MessageDigest digest;
-    try {
-      digest = MessageDigest.getInstance(HASH_512_ALGORITHM_NAME,
-          CRYPTO_PROVIDER);
-      digest.update(input);
-      return digest.digest();
-    } catch (NoSuchAlgorithmException e) {
-      LOG.error("Can't find such algorithm", e);
-      throw new RuntimeException(e);
-    }
+    return sha512digest.get().digest(input);
+  }
+
+  /**
+   * keccak-512 of {@code input[offset, offset + length)}, written to {@code out} at
+   * {@code outOffset}.
+   */
+  public static void sha512(byte[] input, int offset, int length, byte[] out, int outOffset) {
+    MessageDigest digest = sha512digest.get();
+    digest.update(input, offset, length);
+    digest(digest, out, outOffset);
   }
 
   /**
@@ -135,4 +183,17 @@ public class Hash {
     address[0] = CommonConstant.ADD_PRE_FIX_BYTE;
     return address;
   }
+
+  /**
+   * Address of {@code input[offset, offset + length)}, the 64 bytes X, Y of a public key, written
+   * to {@code out} at {@code outOffset}: the prefix and the 20 rightmost bytes of its keccak hash.
+   */
+  public static void sha3omit12(byte[] input, int offset, int length, byte[] out,
+      int outOffset) {
+    byte[] hash = sha3scratch.get();
+    sha3(input, offset, length, hash, 0);
+    System.arraycopy(hash, HASH_256_LENGTH - ADDRESS_LENGTH + 1, out, outOffset + 1,
+        ADDRESS_LENGTH - 1);
+    out[outOffset] = CommonConstant.ADD_PRE_FIX_BYTE;
+  }
 }
@@ -0,0 +1,74 @@
+package org.tron.common.crypto;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.spongycastle.crypto.digests.SHA256Digest;
+import org.spongycastle.crypto.macs.HMac;
+import org.spongycastle.crypto.params.KeyParameter;
+
+/**
+ * Private keys derived from a seed and an index: {@code HMAC-SHA256(seed, index || counter)}, the
+ * counter only moving past 0 in the rare case the output is not a valid scalar.
+ *
+ * <p>Every key depends on its index alone, so any range can be derived on any box, in parallel
+ * and without a key file: load boxes sharing a seed and given disjoint ranges send from disjoint
+ * accounts with no coordination. These keys are only as secret as the seed, they are meant for
+ * test accounts.
+ */
+public class KeyDerivation {
+
+  private static final int MAC_LENGTH = 32;
+
+  private final ThreadLocal<HMac> mac;
+
+  public KeyDerivation(byte[] seed) {
+    byte[] key = seed.clone();
+    this.mac = ThreadLocal.withInitial(() -> {
+      HMac hmac = new HMac(new SHA256Digest());
+      hmac.init(new KeyParameter(key));
+      return hmac;
+    });
+  }
+
+  /**
+   * @param passphrase hashed into the seed
+   */
+  public static KeyDerivation fromPassphrase(String passphrase) {
+    return new KeyDerivation(Hash.sha256(passphrase.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  public BigInteger privateKey(long index) {
+    HMac hmac = mac.get();
+    byte[] out = new byte[MAC_LENGTH];
+    for (int counter = 0; ; counter++) {
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        hmac.update((byte) (index >>> shift));
+      }
+      for (int shift = 24; shift >= 0; shift -= 8) {
+        hmac.update((byte) (counter >>> shift));
+      }
+      // doFinal also resets the mac to the seed for the next call
+      hmac.doFinal(out, 0);
+      BigInteger privateKey = new BigInteger(1, out);
+      if (privateKey.signum() > 0 && privateKey.compareTo(ECKey.CURVE.getN()) < 0) {
+        return privateKey;
+      }
+    }
+  }
+
+  /**
+   * Keys {@code first} to {@code first + count - 1}, derived on every core.
+   */
+  public KeyTable derive(long first, int count) {
+    return KeyTable.derive(this, first, count);
+  }
+
+  public List<ECKey> keys(long first, int count) {
+    return IntStream.range(0, count).parallel()
+        .mapToObj(i -> ECKey.fromPrivate(privateKey(first + i)))
+        .collect(Collectors.toList());
+  }
+}
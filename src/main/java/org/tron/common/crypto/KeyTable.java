@@ -0,0 +1,172 @@
+package org.tron.common.crypto;
+
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.spongycastle.crypto.digests.SHA256Digest;
+import org.spongycastle.crypto.signers.HMacDSAKCalculator;
+import org.tron.common.crypto.ECKey.ECDSASignature;
+import org.tron.common.utils.ByteUtil;
+import org.tron.protos.Protocol.Transaction;
+
+/**
+ * Sender keys packed in flat arrays: private scalars, uncompressed public keys and addresses.
+ *
+ * <p>Public keys and addresses are derived once when the table is built, in parallel. Signing goes
+ * through {@link Signer} handles, one per thread, so the hot path allocates no key object and
+ * never multiplies a point to find a public key. A million keys take about 120MB and three
+ * objects.
+ */
+public class KeyTable {
+
+  public static final int PRIVATE_KEY_LENGTH = 32;
+  public static final int PUBLIC_KEY_LENGTH = 65;
+  public static final int ADDRESS_LENGTH = 21;
+
+  private final int size;
+  private final byte[] privateKeys;
+  private final byte[] publicKeys;
+  private final byte[] addresses;
+
+  private KeyTable(int size) {
+    this.size = size;
+    this.privateKeys = new byte[size * PRIVATE_KEY_LENGTH];
+    this.publicKeys = new byte[size * PUBLIC_KEY_LENGTH];
+    this.addresses = new byte[size * ADDRESS_LENGTH];
+  }
+
+  /**
+   * Reads one hex private key per line, the format of the private key files. Only the first
+   * column of a line is used.
+   */
+  public static KeyTable load(File file) throws IOException {
+    try (Stream<String> lines = Files.lines(file.toPath(), StandardCharsets.UTF_8)) {
+      return fromHex(lines.map(line -> line.split(",", 2)[0].trim())
+          .filter(key -> !key.isEmpty())
+          .collect(Collectors.toList()));
+    }
+  }
+
+  public static KeyTable fromHex(List<String> privateKeys) {
+    KeyTable table = new KeyTable(privateKeys.size());
+    IntStream.range(0, table.size).parallel().forEach(i -> {
+      BigInteger privateKey = new BigInteger(privateKeys.get(i), 16);
+      table.set(i, privateKey, ECKey.publicKeyFromPrivate(privateKey, false));
+    });
+    return table;
+  }
+
+  /**
+   * Keys {@code first} to {@code first + count - 1} of a derivation, see {@link KeyDerivation}.
+   */
+  public static KeyTable derive(KeyDerivation derivation, long first, int count) {
+    KeyTable table = new KeyTable(count);
+    IntStream.range(0, count).parallel().forEach(i -> {
+      BigInteger privateKey = derivation.privateKey(first + i);
+      table.set(i, privateKey, ECKey.publicKeyFromPrivate(privateKey, false));
+    });
+    return table;
+  }
+
+  /**
+   * Copies keys whose public point is already known, nothing is derived again.
+   */
+  public static KeyTable of(List<ECKey> keys) {
+    KeyTable table = new KeyTable(keys.size());
+    IntStream.range(0, table.size).parallel().forEach(i -> {
+      ECKey key = keys.get(i);
+      table.set(i, new BigInteger(1, key.getPrivKeyBytes()), key.getPubKey());
+    });
+    return table;
+  }
+
+  private void set(int i, BigInteger privateKey, byte[] publicKey) {
+    byte[] scalar = ByteUtil.bigIntegerToBytes(privateKey, PRIVATE_KEY_LENGTH);
+    System.arraycopy(scalar, 0, privateKeys, i * PRIVATE_KEY_LENGTH, PRIVATE_KEY_LENGTH);
+    System.arraycopy(publicKey, 0, publicKeys, i * PUBLIC_KEY_LENGTH, PUBLIC_KEY_LENGTH);
+    Hash.sha3omit12(publicKey, 1, PUBLIC_KEY_LENGTH - 1, addresses, i * ADDRESS_LENGTH);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public byte[] getAddress(int i) {
+    byte[] address = new byte[ADDRESS_LENGTH];
+    System.arraycopy(addresses, i * ADDRESS_LENGTH, address, 0, ADDRESS_LENGTH);
+    return address;
+  }
+
+  /**
+   * Copies address {@code i} to {@code out} at {@code offset}, nothing is allocated.
+   */
+  public void copyAddress(int i, byte[] out, int offset) {
+    System.arraycopy(addresses, i * ADDRESS_LENGTH, out, offset, ADDRESS_LENGTH);
+  }
+
+  public ByteString getAddressString(int i) {
+    return ByteString.copyFrom(addresses, i * ADDRESS_LENGTH, ADDRESS_LENGTH);
+  }
+
+  public byte[] getPublicKey(int i) {
+    byte[] publicKey = new byte[PUBLIC_KEY_LENGTH];
+    System.arraycopy(publicKeys, i * PUBLIC_KEY_LENGTH, publicKey, 0, PUBLIC_KEY_LENGTH);
+    return publicKey;
+  }
+
+  /**
+   * For the code that still wants an {@link ECKey}, the public key is not computed again.
+   */
+  public ECKey toECKey(int i) {
+    byte[] privateKey = new byte[PRIVATE_KEY_LENGTH];
+    System.arraycopy(privateKeys, i * PRIVATE_KEY_LENGTH, privateKey, 0, PRIVATE_KEY_LENGTH);
+    return ECKey.fromPrivateAndPrecalculatedPublic(privateKey, getPublicKey(i));
+  }
+
+  /**
+   * @return a signer for the calling thread only
+   */
+  public Signer newSigner() {
+    return new Signer();
+  }
+
+  /**
+   * Thread confined signing state: the RFC 6979 k calculator and a scratch buffer.
+   */
+  public class Signer {
+
+    private final HMacDSAKCalculator kCalculator = new HMacDSAKCalculator(new SHA256Digest());
+    private final byte[] scalar = new byte[PRIVATE_KEY_LENGTH];
+
+    private Signer() {
+    }
+
+    /**
+     * Same signature as {@link ECKey#sign}, recovery id included.
+     */
+    public ECDSASignature sign(int i, byte[] hash) {
+      System.arraycopy(privateKeys, i * PRIVATE_KEY_LENGTH, scalar, 0, PRIVATE_KEY_LENGTH);
+      return FixedBase.sign(new BigInteger(1, scalar), hash, kCalculator);
+    }
+
+    /**
+     * Signs every contract of the transaction with key {@code i}, like
+     * {@code TransactionUtils.sign}.
+     */
+    public Transaction sign(int i, Transaction transaction) {
+      byte[] hash = Hash.sha256(transaction.getRawData().toByteArray());
+      Transaction.Builder builder = transaction.toBuilder();
+      for (int c = 0; c < transaction.getRawData().getContractCount(); c++) {
+        builder.addSignature(ByteString.copyFrom(sign(i, hash).toByteArray()));
+      }
+      return builder.build();
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package org.tron.common.journal;
+
+/**
+ * Layout of a result journal file.
+ *
+ * <pre>
+ * header   magic(4) version(4) chunks(8) dropped(8) reserved(40)
+ * chunks   CHUNK_RECORDS records each, claimed one at a time by the writing threads
+ * record   txid(32) sender(4) node(2) code(2) intended(8) sent(8) ack(8)
+ * </pre>
+ *
+ * Times are nanoseconds since the epoch. {@code code} is the {@code Return.response_code}
+ * number, {@link #RPC_FAILURE} when the node never answered. A record whose ack time is 0 was
+ * never written, chunks are only partly filled when the run ends. All numbers are big endian.
+ *
+ * <p>Magic and version are written when the file is created, the counts only when the journal
+ * is closed: until then they are {@link #UNKNOWN} and a reader scans every chunk of the file, so
+ * the journal of a killed run can still be read.
+ */
+interface JournalFormat {
+
+  int MAGIC = 0x4C56524A; // "LVRJ"
+  int VERSION = 1;
+  int HEADER_SIZE = 64;
+  int RECORD_SIZE = 64;
+  int CHUNK_RECORDS = 4096;
+  /**
+   * Mappings are limited to 2GB, the file is mapped in segments of whole chunks.
+   */
+  int SEGMENT_CHUNKS = 4096;
+  long SEGMENT_SIZE = (long) SEGMENT_CHUNKS * CHUNK_RECORDS * RECORD_SIZE;
+
+  int TXID_OFFSET = 0;
+  int SENDER_OFFSET = 32;
+  int NODE_OFFSET = 36;
+  int CODE_OFFSET = 38;
+  int INTENDED_OFFSET = 40;
+  int SENT_OFFSET = 48;
+  int ACK_OFFSET = 56;
+
+  short RPC_FAILURE = -1;
+
+  long UNKNOWN = -1;
+}
@@ -0,0 +1,175 @@
+package org.tron.common.journal;
+
+import static org.tron.common.journal.JournalFormat.ACK_OFFSET;
+import static org.tron.common.journal.JournalFormat.CHUNK_RECORDS;
+import static org.tron.common.journal.JournalFormat.CODE_OFFSET;
+import static org.tron.common.journal.JournalFormat.HEADER_SIZE;
+import static org.tron.common.journal.JournalFormat.INTENDED_OFFSET;
+import static org.tron.common.journal.JournalFormat.MAGIC;
+import static org.tron.common.journal.JournalFormat.NODE_OFFSET;
+import static org.tron.common.journal.JournalFormat.RECORD_SIZE;
+import static org.tron.common.journal.JournalFormat.SEGMENT_CHUNKS;
+import static org.tron.common.journal.JournalFormat.SEGMENT_SIZE;
+import static org.tron.common.journal.JournalFormat.SENDER_OFFSET;
+import static org.tron.common.journal.JournalFormat.SENT_OFFSET;
+import static org.tron.common.journal.JournalFormat.TXID_OFFSET;
+import static org.tron.common.journal.JournalFormat.UNKNOWN;
+import static org.tron.common.journal.JournalFormat.VERSION;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.function.Consumer;
+
+/**
+ * Read only, memory mapped view of a result journal, see {@link JournalFormat}. Thread safe.
+ *
+ * <p>Chunks are independent, the analysis reads them in parallel.
+ */
+public class JournalReader implements Closeable {
+
+  private final RandomAccessFile file;
+  private final long chunks;
+  private final long dropped;
+  private final MappedByteBuffer[] segments;
+
+  public JournalReader(File file) throws IOException {
+    this.file = new RandomAccessFile(file, "r");
+    FileChannel channel = this.file.getChannel();
+
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    channel.read(header, 0);
+    header.flip();
+    if (header.getInt() != MAGIC) {
+      throw new IOException(file + " is not a result journal");
+    }
+    int version = header.getInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported journal version " + version);
+    }
+    long closedChunks = header.getLong();
+    this.dropped = header.getLong();
+    // a journal never closed holds records in any chunk of the file, empty ones read as nothing
+    this.chunks = closedChunks != UNKNOWN ? closedChunks
+        : (this.file.length() - HEADER_SIZE) / ((long) CHUNK_RECORDS * RECORD_SIZE);
+
+    long dataSize = chunks * CHUNK_RECORDS * RECORD_SIZE;
+    int segmentCount = (int) ((chunks + SEGMENT_CHUNKS - 1) / SEGMENT_CHUNKS);
+    segments = new MappedByteBuffer[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      long start = i * SEGMENT_SIZE;
+      segments[i] = channel.map(MapMode.READ_ONLY, HEADER_SIZE + start,
+          Math.min(SEGMENT_SIZE, dataSize - start));
+    }
+  }
+
+  /**
+   * @return chunks claimed by the writers, or every chunk of the file if the journal was never
+   * closed; the last ones are usually not full
+   */
+  public long getChunks() {
+    return chunks;
+  }
+
+  /**
+   * @return false if the writer never closed the journal, the process was likely killed
+   */
+  public boolean isClosed() {
+    return dropped != UNKNOWN;
+  }
+
+  /**
+   * @return results the writers could not journal because the file was full, {@link
+   * JournalFormat#UNKNOWN} if the journal was never closed
+   */
+  public long getDropped() {
+    return dropped;
+  }
+
+  /**
+   * Hands every written record of a chunk to {@code consumer}, always in the same {@link Record}
+   * instance.
+   */
+  public void read(long chunk, Consumer<Record> consumer) {
+    if (chunk < 0 || chunk >= chunks) {
+      throw new IndexOutOfBoundsException("Chunk " + chunk + " of " + chunks);
+    }
+    ByteBuffer segment = segments[(int) (chunk / SEGMENT_CHUNKS)];
+    int start = (int) (chunk % SEGMENT_CHUNKS) * CHUNK_RECORDS * RECORD_SIZE;
+    Record record = new Record();
+    for (int i = 0; i < CHUNK_RECORDS; i++) {
+      int position = start + i * RECORD_SIZE;
+      long ack = segment.getLong(position + ACK_OFFSET);
+      if (ack == 0) {
+        // the thread owning the chunk stopped here
+        return;
+      }
+      ByteBuffer txid = segment.duplicate();
+      txid.position(position + TXID_OFFSET);
+      txid.get(record.txid);
+      record.sender = segment.getInt(position + SENDER_OFFSET);
+      record.node = segment.getShort(position + NODE_OFFSET);
+      record.code = segment.getShort(position + CODE_OFFSET);
+      record.intended = segment.getLong(position + INTENDED_OFFSET);
+      record.sent = segment.getLong(position + SENT_OFFSET);
+      record.ack = ack;
+      consumer.accept(record);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    file.close();
+  }
+
+  /**
+   * One journaled result, times in nanoseconds since the epoch.
+   */
+  public static class Record {
+
+    private final byte[] txid = new byte[32];
+    private int sender;
+    private int node;
+    private int code;
+    private long intended;
+    private long sent;
+    private long ack;
+
+    public byte[] getTxid() {
+      return txid;
+    }
+
+    public int getSender() {
+      return sender;
+    }
+
+    public int getNode() {
+      return node;
+    }
+
+    /**
+     * @return the {@code Return.response_code} number, {@link ResultJournal#RPC_FAILURE} if the
+     * node never answered
+     */
+    public int getCode() {
+      return code;
+    }
+
+    public long getIntended() {
+      return intended;
+    }
+
+    public long getSent() {
+      return sent;
+    }
+
+    public long getAck() {
+      return ack;
+    }
+  }
+}
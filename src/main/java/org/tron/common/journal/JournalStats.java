@@ -0,0 +1,122 @@
+package org.tron.common.journal;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.tron.common.journal.JournalReader.Record;
+
+/**
+ * Aggregate of journal records: counts by code and node, latency histograms and one row per
+ * second of intended send time. Not thread safe, every analysis thread fills its own and they
+ * are merged at the end.
+ */
+public class JournalStats {
+
+  private static final long HIGHEST = TimeUnit.MINUTES.toMicros(10);
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final Map<Integer, long[]> codes = new TreeMap<>();
+  private final Map<Integer, long[]> nodes = new TreeMap<>();
+  private final Map<Long, long[]> seconds = new TreeMap<>();
+  /**
+   * Ack minus intended time, what a user would have waited.
+   */
+  private final Histogram response = new Histogram(HIGHEST, 3);
+  /**
+   * Ack minus actual send time, what the node took.
+   */
+  private final Histogram service = new Histogram(HIGHEST, 3);
+  /**
+   * Actual minus intended send time, how late the sender was.
+   */
+  private final Histogram lag = new Histogram(HIGHEST, 3);
+  private long count;
+
+  public void add(Record record) {
+    count++;
+    codes.computeIfAbsent(record.getCode(), k -> new long[1])[0]++;
+    nodes.computeIfAbsent(record.getNode(), k -> new long[1])[0]++;
+    long[] second = seconds.computeIfAbsent(record.getIntended() / SECOND, k -> new long[2]);
+    second[0]++;
+    if (record.getCode() == 0) {
+      second[1]++;
+    }
+    response.recordValue(micros(record.getAck() - record.getIntended()));
+    service.recordValue(micros(record.getAck() - record.getSent()));
+    lag.recordValue(micros(record.getSent() - record.getIntended()));
+  }
+
+  private static long micros(long nanos) {
+    return Math.min(Math.max(0, nanos / 1000), HIGHEST);
+  }
+
+  /**
+   * Adds {@code other} to this instance, which is returned.
+   */
+  public JournalStats merge(JournalStats other) {
+    count += other.count;
+    mergeInto(codes, other.codes);
+    mergeInto(nodes, other.nodes);
+    mergeInto(seconds, other.seconds);
+    response.add(other.response);
+    service.add(other.service);
+    lag.add(other.lag);
+    return this;
+  }
+
+  private static <K> void mergeInto(Map<K, long[]> to, Map<K, long[]> from) {
+    from.forEach((key, values) -> {
+      long[] sums = to.computeIfAbsent(key, k -> new long[values.length]);
+      for (int i = 0; i < values.length; i++) {
+        sums[i] += values[i];
+      }
+    });
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @return results by {@code Return.response_code} number, in code order
+   */
+  public Map<Integer, Long> getCodes() {
+    return firstColumn(codes);
+  }
+
+  /**
+   * @return results by node id, in id order
+   */
+  public Map<Integer, Long> getNodes() {
+    return firstColumn(nodes);
+  }
+
+  private static Map<Integer, Long> firstColumn(Map<Integer, long[]> map) {
+    Map<Integer, Long> counts = new TreeMap<>();
+    map.forEach((key, values) -> counts.put(key, values[0]));
+    return counts;
+  }
+
+  /**
+   * @return by epoch second of the intended send time, the results and the successes
+   */
+  public Map<Long, long[]> getSeconds() {
+    return seconds;
+  }
+
+  /**
+   * In microseconds like every histogram here.
+   */
+  public Histogram getResponseTime() {
+    return response;
+  }
+
+  public Histogram getServiceTime() {
+    return service;
+  }
+
+  public Histogram getSendLag() {
+    return lag;
+  }
+}
@@ -0,0 +1,152 @@
+package org.tron.common.journal;
+
+import static org.tron.common.journal.JournalFormat.CHUNK_RECORDS;
+import static org.tron.common.journal.JournalFormat.HEADER_SIZE;
+import static org.tron.common.journal.JournalFormat.MAGIC;
+import static org.tron.common.journal.JournalFormat.RECORD_SIZE;
+import static org.tron.common.journal.JournalFormat.SEGMENT_CHUNKS;
+import static org.tron.common.journal.JournalFormat.SEGMENT_SIZE;
+import static org.tron.common.journal.JournalFormat.VERSION;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Append only journal of every broadcast result, see {@link JournalFormat}. Thread safe, lock
+ * free.
+ *
+ * <p>The file is sized for {@code capacity} records up front and mapped. A thread claims a chunk
+ * of {@link JournalFormat#CHUNK_RECORDS} records with one atomic increment and fills it alone, so
+ * writing a record is a few stores into the mapping. Once every chunk is claimed, a thread that
+ * fills its own counts its next records as dropped, nothing ever waits. The page cache writes the
+ * file back; nothing is flushed on the send path.
+ */
+public class ResultJournal implements Closeable {
+
+  public static final short RPC_FAILURE = JournalFormat.RPC_FAILURE;
+
+  /**
+   * Records to add to the expected count for the chunks the threads claim but do not fill.
+   */
+  public static final long CHUNK_SLACK = 64L * JournalFormat.CHUNK_RECORDS;
+
+  private final RandomAccessFile file;
+  private final MappedByteBuffer[] segments;
+  private final long maxChunks;
+  private final AtomicLong chunks = new AtomicLong();
+  private final LongAdder dropped = new LongAdder();
+  private final ThreadLocal<Region> regions = ThreadLocal.withInitial(Region::new);
+  // nanoTime values are converted to epoch nanoseconds against this pair
+  private final long baseEpochNanos = System.currentTimeMillis() * 1_000_000L;
+  private final long baseNanoTime = System.nanoTime();
+  private boolean closed;
+
+  /**
+   * @param capacity records the file can hold, rounded up to whole chunks
+   */
+  public ResultJournal(File file, long capacity) throws IOException {
+    this.maxChunks = Math.max(1, (capacity + CHUNK_RECORDS - 1) / CHUNK_RECORDS);
+    long dataSize = maxChunks * CHUNK_RECORDS * RECORD_SIZE;
+    this.file = new RandomAccessFile(file, "rw");
+    this.file.setLength(0);
+    this.file.setLength(HEADER_SIZE + dataSize);
+    FileChannel channel = this.file.getChannel();
+    int segmentCount = (int) ((maxChunks + SEGMENT_CHUNKS - 1) / SEGMENT_CHUNKS);
+    segments = new MappedByteBuffer[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      long start = i * SEGMENT_SIZE;
+      segments[i] = channel.map(MapMode.READ_WRITE, HEADER_SIZE + start,
+          Math.min(SEGMENT_SIZE, dataSize - start));
+    }
+    // readable as is if the process is killed before close
+    writeHeader(JournalFormat.UNKNOWN, JournalFormat.UNKNOWN);
+  }
+
+  /**
+   * @param txid 32 bytes
+   * @param sender index of the sending task
+   * @param intended time the send was scheduled for, {@link System#nanoTime()}
+   * @param sent time the request was handed to gRPC, {@link System#nanoTime()}
+   * @param ack time the answer arrived, {@link System#nanoTime()}
+   * @param node id of the node that answered
+   * @param code {@code Return.response_code} number, {@link #RPC_FAILURE} without an answer
+   */
+  public void record(byte[] txid, int sender, long intended, long sent, long ack, int node,
+      int code) {
+    Region region = regions.get();
+    if (region.next == region.end && !region.claim()) {
+      dropped.increment();
+      return;
+    }
+    ByteBuffer view = region.view;
+    view.position(region.next++ * RECORD_SIZE);
+    view.put(txid, 0, 32);
+    view.putInt(sender);
+    view.putShort((short) node);
+    view.putShort((short) code);
+    view.putLong(toEpochNanos(intended));
+    view.putLong(toEpochNanos(sent));
+    view.putLong(toEpochNanos(ack));
+  }
+
+  private long toEpochNanos(long nanoTime) {
+    return baseEpochNanos + (nanoTime - baseNanoTime);
+  }
+
+  public long getDropped() {
+    return dropped.sum();
+  }
+
+  private void writeHeader(long chunkCount, long droppedCount) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    header.putInt(MAGIC).putInt(VERSION).putLong(chunkCount).putLong(droppedCount);
+    header.position(0);
+    file.getChannel().write(header, 0);
+  }
+
+  /**
+   * Writes the chunk and drop counts to the header, only once: a shutdown hook may call it again.
+   * Records still being written by other threads may be lost.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    for (MappedByteBuffer segment : segments) {
+      segment.force();
+    }
+    writeHeader(Math.min(chunks.get(), maxChunks), dropped.sum());
+    file.close();
+  }
+
+  /**
+   * The chunk a thread is filling, as record indexes within the view of its segment.
+   */
+  private class Region {
+
+    private ByteBuffer view;
+    private int next;
+    private int end;
+
+    boolean claim() {
+      long chunk = chunks.getAndIncrement();
+      if (chunk >= maxChunks) {
+        return false;
+      }
+      view = segments[(int) (chunk / SEGMENT_CHUNKS)].duplicate();
+      next = (int) (chunk % SEGMENT_CHUNKS) * CHUNK_RECORDS;
+      end = next + CHUNK_RECORDS;
+      return true;
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package org.tron.common.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe Bloom filter over digests, every key sets its bits in a single 64 bit word.
+ *
+ * <p>Keeping the bits of a key in one word makes {@link #put} a single compare and set, so two
+ * threads adding the same key at once can not both see it as new. Keys must be digests (SHA-256
+ * output), their bytes are used as the hash functions.
+ */
+public class BlockedBloomFilter {
+
+  private static final int BITS_PER_KEY_IN_WORD = 6;
+
+  private final AtomicLongArray words;
+  private final long mask;
+
+  /**
+   * @param bitsPerKey 16 bits per key gives about 1% false positives
+   */
+  public BlockedBloomFilter(long expectedInsertions, int bitsPerKey) {
+    long wordCount = 1;
+    while (wordCount * 64 < expectedInsertions * bitsPerKey) {
+      wordCount <<= 1;
+    }
+    if (wordCount > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Bloom filter too big: " + wordCount + " words");
+    }
+    this.words = new AtomicLongArray((int) wordCount);
+    this.mask = wordCount - 1;
+  }
+
+  /**
+   * Adds a digest.
+   *
+   * @return true if the digest may have been added before, false if it surely was not
+   */
+  public boolean put(byte[] digest, int offset) {
+    long h1 = 0;
+    long h2 = 0;
+    for (int i = 0; i < 8; i++) {
+      h1 = (h1 << 8) | (digest[offset + i] & 0xff);
+      h2 = (h2 << 8) | (digest[offset + 8 + i] & 0xff);
+    }
+    int index = (int) (h1 & mask);
+    long bits = 0;
+    for (int i = 0; i < BITS_PER_KEY_IN_WORD; i++) {
+      bits |= 1L << ((h2 >>> (i * 6)) & 63);
+    }
+    while (true) {
+      long word = words.get(index);
+      if ((word & bits) == bits) {
+        return true;
+      }
+      if (words.compareAndSet(index, word, word | bits)) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * @return heap bytes held by the bit array
+   */
+  public long memoryUsage() {
+    return words.length() * 8L;
+  }
+}
@@ -0,0 +1,301 @@
+package org.tron.common.utils;
+
+import java.nio.ByteBuffer;
+import java.util.function.LongPredicate;
+
+/**
+ * Open addressing hash table of fixed length byte keys to long values, stored in direct buffers.
+ *
+ * <p>Meant for millions of transaction or block hashes: an entry costs {@code keyLength + 16}
+ * bytes off heap and no object at all. The table is split in segments, each guarded by its own
+ * lock and grown on its own, so concurrent writers rarely meet. Keys are expected to be digests,
+ * their bytes are only mixed, not hashed again.
+ */
+public class OffHeapHashTable {
+
+  private static final int SEGMENT_BITS = 6;
+  private static final int SEGMENTS = 1 << SEGMENT_BITS;
+  private static final float LOAD_FACTOR = 0.75f;
+
+  private static final byte EMPTY = 0;
+  private static final byte FULL = 1;
+  private static final byte DELETED = 2;
+
+  private final int keyLength;
+  private final int slotSize;
+  private final Segment[] segments = new Segment[SEGMENTS];
+
+  /**
+   * Visits one entry, the key array is reused between calls.
+   */
+  public interface EntryConsumer {
+
+    void accept(byte[] key, long value);
+  }
+
+  /**
+   * @param keyLength bytes of every key
+   * @param expectedSize entries expected, the table grows past it if needed
+   */
+  public OffHeapHashTable(int keyLength, long expectedSize) {
+    this.keyLength = keyLength;
+    // state(8) key(keyLength) value(8), the state is padded to keep values aligned
+    this.slotSize = 8 + ((keyLength + 7) & ~7) + 8;
+    long perSegment = (long) (expectedSize / SEGMENTS / LOAD_FACTOR) + 1;
+    int capacity = 16;
+    while (capacity < perSegment) {
+      capacity <<= 1;
+    }
+    for (int i = 0; i < SEGMENTS; i++) {
+      segments[i] = new Segment(capacity);
+    }
+  }
+
+  public int getKeyLength() {
+    return keyLength;
+  }
+
+  /**
+   * @return false if the key was already there, its value is left untouched
+   */
+  public boolean putIfAbsent(byte[] key, int offset, long value) {
+    long hash = hash(key, offset);
+    Segment segment = segmentFor(hash);
+    synchronized (segment) {
+      if (segment.find(key, offset, hash) >= 0) {
+        return false;
+      }
+      segment.insert(key, offset, hash, value);
+      return true;
+    }
+  }
+
+  /**
+   * Adds {@code delta} to the value of the key, a missing key starts from zero.
+   *
+   * @return the new value
+   */
+  public long addTo(byte[] key, int offset, long delta) {
+    long hash = hash(key, offset);
+    Segment segment = segmentFor(hash);
+    synchronized (segment) {
+      int slot = segment.find(key, offset, hash);
+      if (slot < 0) {
+        segment.insert(key, offset, hash, delta);
+        return delta;
+      }
+      long value = segment.value(slot) + delta;
+      segment.slots.putLong(segment.valueOffset(slot), value);
+      return value;
+    }
+  }
+
+  public long get(byte[] key, int offset, long defaultValue) {
+    long hash = hash(key, offset);
+    Segment segment = segmentFor(hash);
+    synchronized (segment) {
+      int slot = segment.find(key, offset, hash);
+      return slot < 0 ? defaultValue : segment.value(slot);
+    }
+  }
+
+  /**
+   * @return the value of the removed key, {@code defaultValue} if it was not there
+   */
+  public long remove(byte[] key, int offset, long defaultValue) {
+    long hash = hash(key, offset);
+    Segment segment = segmentFor(hash);
+    synchronized (segment) {
+      int slot = segment.find(key, offset, hash);
+      if (slot < 0) {
+        return defaultValue;
+      }
+      long value = segment.value(slot);
+      segment.slots.put(slot * slotSize, DELETED);
+      segment.size--;
+      return value;
+    }
+  }
+
+  /**
+   * Removes every entry whose value matches.
+   *
+   * @return number of removed entries
+   */
+  public long removeIf(LongPredicate predicate) {
+    long removed = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        for (int slot = 0; slot < segment.capacity; slot++) {
+          if (segment.slots.get(slot * slotSize) == FULL && predicate.test(segment.value(slot))) {
+            segment.slots.put(slot * slotSize, DELETED);
+            segment.size--;
+            removed++;
+          }
+        }
+      }
+    }
+    return removed;
+  }
+
+  public void forEach(EntryConsumer consumer) {
+    byte[] key = new byte[keyLength];
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        for (int slot = 0; slot < segment.capacity; slot++) {
+          if (segment.slots.get(slot * slotSize) == FULL) {
+            ByteBuffer buffer = segment.slots.duplicate();
+            buffer.position(slot * slotSize + 8);
+            buffer.get(key);
+            consumer.accept(key, segment.value(slot));
+          }
+        }
+      }
+    }
+  }
+
+  public long size() {
+    long size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.size;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * @return bytes held off heap
+   */
+  public long memoryUsage() {
+    long bytes = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        bytes += (long) segment.capacity * slotSize;
+      }
+    }
+    return bytes;
+  }
+
+  private Segment segmentFor(long hash) {
+    return segments[(int) (hash >>> (64 - SEGMENT_BITS))];
+  }
+
+  private long hash(byte[] key, int offset) {
+    long h = 0;
+    for (int i = 0; i < keyLength; i++) {
+      h = h * 31 + key[offset + i];
+    }
+    // murmur3 finalizer, spreads the bits used for the segment and the slot
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  private final class Segment {
+
+    private ByteBuffer slots;
+    private int capacity;
+    private int size;
+    private int used;
+
+    Segment(int capacity) {
+      allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+      long bytes = (long) capacity * slotSize;
+      if (bytes > Integer.MAX_VALUE) {
+        throw new IllegalStateException("Hash table segment over 2GB");
+      }
+      this.slots = ByteBuffer.allocateDirect((int) bytes);
+      this.capacity = capacity;
+      this.size = 0;
+      this.used = 0;
+    }
+
+    int valueOffset(int slot) {
+      return slot * slotSize + slotSize - 8;
+    }
+
+    long value(int slot) {
+      return slots.getLong(valueOffset(slot));
+    }
+
+    int find(byte[] key, int offset, long hash) {
+      int mask = capacity - 1;
+      for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+        byte state = slots.get(slot * slotSize);
+        if (state == EMPTY) {
+          return -1;
+        }
+        if (state == FULL && keyEquals(slot, key, offset)) {
+          return slot;
+        }
+      }
+    }
+
+    private boolean keyEquals(int slot, byte[] key, int offset) {
+      int base = slot * slotSize + 8;
+      for (int i = 0; i < keyLength; i++) {
+        if (slots.get(base + i) != key[offset + i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    void insert(byte[] key, int offset, long hash, long value) {
+      if (used + 1 > capacity * LOAD_FACTOR) {
+        // grow if really full, otherwise only drop the tombstones
+        rehash(size + 1 > capacity / 2 ? capacity << 1 : capacity);
+      }
+      int mask = capacity - 1;
+      int slot = (int) hash & mask;
+      while (slots.get(slot * slotSize) == FULL) {
+        slot = (slot + 1) & mask;
+      }
+      if (slots.get(slot * slotSize) == EMPTY) {
+        used++;
+      }
+      write(slot, key, offset, value);
+      size++;
+    }
+
+    private void write(int slot, byte[] key, int offset, long value) {
+      int base = slot * slotSize;
+      slots.put(base, FULL);
+      for (int i = 0; i < keyLength; i++) {
+        slots.put(base + 8 + i, key[offset + i]);
+      }
+      slots.putLong(valueOffset(slot), value);
+    }
+
+    private void rehash(int newCapacity) {
+      ByteBuffer old = slots;
+      int oldCapacity = capacity;
+      allocate(newCapacity);
+      byte[] key = new byte[keyLength];
+      int mask = capacity - 1;
+      for (int slot = 0; slot < oldCapacity; slot++) {
+        int base = slot * slotSize;
+        if (old.get(base) != FULL) {
+          continue;
+        }
+        for (int i = 0; i < keyLength; i++) {
+          key[i] = old.get(base + 8 + i);
+        }
+        int target = (int) hash(key, 0) & mask;
+        while (slots.get(target * slotSize) == FULL) {
+          target = (target + 1) & mask;
+        }
+        write(target, key, 0, old.getLong(base + slotSize - 8));
+        size++;
+        used++;
+      }
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package org.tron.common.utils;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.crypto.KeyTable;
+import org.tron.protos.Protocol.Transaction;
+
+/**
+ * Signing stage that splits a batch of transactions over a fork-join pool.
+ *
+ * <p>Hashing and signing only touch thread confined state (see {@code Hash.sha256} and
+ * {@code ECKey.doSign}), so throughput is expected to grow with the pool size up to the core count.
+ */
+public class ParallelSigner {
+
+  /**
+   * Below this many transactions a task signs its range instead of splitting it further.
+   */
+  private static final int THRESHOLD = 256;
+
+  private final ForkJoinPool pool;
+  private final LongAdder signatures = new LongAdder();
+  private final LongAdder elapsedNanos = new LongAdder();
+
+  public ParallelSigner(int parallelism) {
+    this.pool = new ForkJoinPool(parallelism);
+  }
+
+  /**
+   * Stamps and signs every transaction of the array in place.
+   *
+   * @param keys key to sign the transaction at the given index with
+   */
+  public void sign(Transaction[] transactions, IntFunction<ECKey> keys) {
+    long start = System.nanoTime();
+    pool.invoke(new SignTask(transactions, (i, t) -> TransactionUtils.sign(t, keys.apply(i)),
+        0, transactions.length));
+    elapsedNanos.add(System.nanoTime() - start);
+  }
+
+  /**
+   * Stamps and signs every transaction of the array in place, with keys of the table.
+   *
+   * @param keyIndex index in the table of the key to sign the transaction at the given index with
+   */
+  public void sign(Transaction[] transactions, KeyTable keys, IntUnaryOperator keyIndex) {
+    ThreadLocal<KeyTable.Signer> signers = ThreadLocal.withInitial(keys::newSigner);
+    long start = System.nanoTime();
+    pool.invoke(new SignTask(transactions,
+        (i, t) -> signers.get().sign(keyIndex.applyAsInt(i), t), 0, transactions.length));
+    elapsedNanos.add(System.nanoTime() - start);
+  }
+
+  public long getSignatures() {
+    return signatures.sum();
+  }
+
+  public double getSignaturesPerSecond() {
+    long elapsed = elapsedNanos.sum();
+    return elapsed == 0 ? 0 : signatures.sum() * 1_000_000_000D / elapsed;
+  }
+
+  public double getSignaturesPerSecondPerCore() {
+    return getSignaturesPerSecond() / pool.getParallelism();
+  }
+
+  public String report() {
+    return String.format("signatures: %d, threads: %d, sig/s: %.0f, sig/s per core: %.0f",
+        getSignatures(), pool.getParallelism(), getSignaturesPerSecond(),
+        getSignaturesPerSecondPerCore());
+  }
+
+  public void shutdown() {
+    pool.shutdown();
+  }
+
+  private interface SignFunction {
+
+    Transaction sign(int index, Transaction transaction);
+  }
+
+  private class SignTask extends RecursiveAction {
+
+    private final Transaction[] transactions;
+    private final SignFunction signFunction;
+    private final int from;
+    private final int to;
+
+    SignTask(Transaction[] transactions, SignFunction signFunction, int from, int to) {
+      this.transactions = transactions;
+      this.signFunction = signFunction;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= THRESHOLD) {
+        for (int i = from; i < to; i++) {
+          Transaction transaction = TransactionUtils.setTimestamp(transactions[i]);
+          transactions[i] = signFunction.sign(i, transaction);
+        }
+        signatures.add(to - from);
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new SignTask(transactions, signFunction, from, middle),
+          new SignTask(transactions, signFunction, middle, to));
+    }
+  }
+}
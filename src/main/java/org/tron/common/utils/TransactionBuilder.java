@@ -0,0 +1,73 @@
+package org.tron.common.utils;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Message;
+import org.tron.api.GrpcAPI.BlockReference;
+import org.tron.protos.Contract.TransferContract;
+import org.tron.protos.Protocol.Transaction;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+
+/**
+ * Builds unsigned transactions locally instead of asking the full node to create them.
+ *
+ * <p>The TAPOS fields are taken from a single {@link BlockReference}, so one builder can be shared
+ * by every generating thread. The node accepts the reference as long as the referenced block is
+ * still one of its recent 65536 blocks.
+ */
+public class TransactionBuilder {
+
+  /**
+   * Same lifetime java-tron gives to the transactions it creates itself.
+   */
+  public static final long DEFAULT_EXPIRATION = 60 * 1000L;
+
+  private final ByteString refBlockBytes;
+  private final ByteString refBlockHash;
+  private final long expiration;
+
+  /**
+   * @param reference head block reference, see {@code WalletClient.getBlockReference()}
+   * @param expiration transaction lifetime in milliseconds, counted from the creation time
+   */
+  public TransactionBuilder(BlockReference reference, long expiration) {
+    byte[] blockNum = ByteArray.fromLong(reference.getBlockNum());
+    byte[] blockHash = reference.getBlockHash().toByteArray();
+    this.refBlockBytes = ByteString.copyFrom(ByteArray.subArray(blockNum, 6, 8));
+    this.refBlockHash = ByteString.copyFrom(ByteArray.subArray(blockHash, 8, 16));
+    this.expiration = expiration;
+  }
+
+  public ByteString getRefBlockBytes() {
+    return refBlockBytes;
+  }
+
+  public ByteString getRefBlockHash() {
+    return refBlockHash;
+  }
+
+  /**
+   * @return transaction lifetime in milliseconds
+   */
+  public long getExpiration() {
+    return expiration;
+  }
+
+  public Transaction createTransaction(TransferContract contract) {
+    return createTransaction(contract, ContractType.TransferContract);
+  }
+
+  public Transaction createTransaction(Message contract, ContractType type) {
+    Transaction.Contract.Builder contractBuilder = Transaction.Contract.newBuilder();
+    contractBuilder.setType(type);
+    contractBuilder.setParameter(Any.pack(contract));
+
+    Transaction.raw.Builder rawBuilder = Transaction.raw.newBuilder();
+    rawBuilder.setRefBlockBytes(refBlockBytes);
+    rawBuilder.setRefBlockHash(refBlockHash);
+    rawBuilder.setExpiration(System.currentTimeMillis() + expiration);
+    rawBuilder.addContract(contractBuilder);
+
+    return Transaction.newBuilder().setRawData(rawBuilder).build();
+  }
+}
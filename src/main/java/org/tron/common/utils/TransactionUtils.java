@@ -29,6 +29,7 @@ import org.tron.protos.Protocol.Transaction.Contract;
 
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.security.SignatureException;
 import java.util.Arrays;
 import java.util.List;
@@ -51,6 +52,116 @@ public class TransactionUtils {
     return sha256(tmp.build().toByteArray());
   }
 
+  /**
+   * Finds the serialized raw_data inside a serialized transaction without parsing it. raw_data is
+   * field 1 and is written first, so its bytes are exactly {@code getRawData().toByteArray()}.
+   *
+   * @param transaction serialized {@link Transaction}, left untouched
+   * @return a view of the raw_data bytes, empty if there is none
+   */
+  public static ByteBuffer getRawDataSlice(ByteBuffer transaction) {
+    ByteBuffer buffer = transaction.duplicate();
+    // tag of field 1, length delimited
+    if (!buffer.hasRemaining() || buffer.get() != 0x0A) {
+      return ByteBuffer.allocate(0);
+    }
+    int length = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte b = buffer.get();
+      length |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        break;
+      }
+    }
+    buffer.limit(buffer.position() + length);
+    return buffer.slice();
+  }
+
+  /**
+   * Reads the type of the first contract of a serialized transaction without parsing it.
+   *
+   * @param transaction serialized {@link Transaction}, left untouched
+   * @return the {@code ContractType} number, -1 if there is no contract
+   */
+  public static int getContractType(ByteBuffer transaction) {
+    ByteBuffer contract = getContractSlice(getRawDataSlice(transaction));
+    if (contract == null) {
+      return -1;
+    }
+    // type is field 1 of the contract, written first, absent when 0
+    return contract.hasRemaining() && contract.get() == 0x08 ? (int) readVarint(contract) : 0;
+  }
+
+  /**
+   * Finds the first contract inside a serialized raw_data without parsing it.
+   *
+   * @param raw serialized {@code Transaction.raw}, left untouched
+   * @return a view of the contract bytes, null if there is none
+   */
+  public static ByteBuffer getContractSlice(ByteBuffer raw) {
+    ByteBuffer buffer = skipTo(raw, 11);
+    if (buffer == null) {
+      return null;
+    }
+    int length = (int) readVarint(buffer);
+    buffer.limit(buffer.position() + length);
+    return buffer.slice();
+  }
+
+  /**
+   * Reads the timestamp of a serialized raw_data without parsing it.
+   *
+   * @param raw serialized {@code Transaction.raw}, left untouched
+   * @return the timestamp, 0 if there is none
+   */
+  public static long getTimestamp(ByteBuffer raw) {
+    ByteBuffer buffer = skipTo(raw, 14);
+    return buffer == null ? 0 : readVarint(buffer);
+  }
+
+  /**
+   * @return a copy of {@code message} positioned after the tag of the first occurrence of
+   *     {@code field}, null if the field is absent or the message malformed
+   */
+  private static ByteBuffer skipTo(ByteBuffer message, int field) {
+    ByteBuffer buffer = message.duplicate();
+    while (buffer.hasRemaining()) {
+      int tag = (int) readVarint(buffer);
+      if (tag >>> 3 == field) {
+        return buffer;
+      }
+      switch (tag & 0x07) {
+        case 0:
+          readVarint(buffer);
+          break;
+        case 1:
+          buffer.position(buffer.position() + 8);
+          break;
+        case 2:
+          int length = (int) readVarint(buffer);
+          buffer.position(buffer.position() + length);
+          break;
+        case 5:
+          buffer.position(buffer.position() + 4);
+          break;
+        default:
+          return null;
+      }
+    }
+    return null;
+  }
+
+  private static long readVarint(ByteBuffer buffer) {
+    long value = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte b = buffer.get();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+  }
+
   public static byte[] getOwner(Contract contract) {
     ByteString owner;
     try {
@@ -164,13 +275,13 @@ public class TransactionUtils {
     return transaction;
   }
 
-  public static synchronized Transaction setTimestamp(Transaction transaction) {
-    long currentTime = System.currentTimeMillis()*1000000 + System.nanoTime()%1000000;
-    Transaction.Builder builder = transaction.toBuilder();
-    Transaction.raw.Builder rowBuilder = transaction.getRawData()
-        .toBuilder();
-    rowBuilder.setTimestamp(currentTime);
-    builder.setRawData(rowBuilder.build());
-    return builder.build();
+  /**
+   * Stamps the transaction with a {@link UniqueTimestamp}, so that two transactions with the same
+   * contract still get different txids.
+   */
+  public static Transaction setTimestamp(Transaction transaction) {
+    return transaction.toBuilder()
+        .setRawData(transaction.getRawData().toBuilder().setTimestamp(UniqueTimestamp.next()))
+        .build();
   }
 }
@@ -0,0 +1,204 @@
+package org.tron.common.utils;
+
+import java.nio.charset.StandardCharsets;
+import org.tron.common.crypto.ECKey.ECDSASignature;
+import org.tron.common.crypto.Hash;
+import org.tron.common.crypto.KeyTable;
+
+/**
+ * Serializes signed transfer transactions straight into a reusable buffer, without building any
+ * protobuf object.
+ *
+ * <p>The bytes are exactly those protobuf would write for the transaction
+ * {@link TransactionBuilder} creates, so the txid and the signature the node checks are the same.
+ * Everything but the addresses, the amount and the two times is serialized once, in the
+ * templates; a transfer only patches the lengths the amount changes. The raw data is hashed in
+ * place and the signature appended after it. Not thread safe, one encoder per thread.
+ */
+public class TransferEncoder {
+
+  public static final int SIGNATURE_LENGTH = 65;
+
+  private static final String TYPE_URL = "type.googleapis.com/protocol.TransferContract";
+  /**
+   * Room for the raw_data tag and a length of up to two bytes, the raw data starts right after.
+   */
+  private static final int RAW_OFFSET = 3;
+  private static final int MAX_FRAME_LENGTH = 256;
+  private static final int ADDRESS_LENGTH = KeyTable.ADDRESS_LENGTH;
+
+  private static final byte RAW_DATA_TAG = 0x0A;
+  private static final byte EXPIRATION_TAG = 0x40;
+  private static final byte CONTRACT_TAG = 0x5A;
+  private static final byte TIMESTAMP_TAG = 0x70;
+  private static final byte SIGNATURE_TAG = 0x12;
+  private static final byte OWNER_TAG = 0x0A;
+  private static final byte TO_TAG = 0x12;
+  private static final byte AMOUNT_TAG = 0x18;
+
+  /**
+   * Contract type, Any tag and type url, then the Any value tag: the Any and value lengths are
+   * patched for every transfer.
+   */
+  private static final byte[] CONTRACT_TEMPLATE;
+  private static final int ANY_LENGTH_SLOT = 3;
+  private static final int VALUE_LENGTH_SLOT;
+
+  static {
+    byte[] typeUrl = TYPE_URL.getBytes(StandardCharsets.US_ASCII);
+    CONTRACT_TEMPLATE = new byte[6 + typeUrl.length + 2];
+    // type = TransferContract, parameter = Any {type_url, value}
+    CONTRACT_TEMPLATE[0] = 0x08;
+    CONTRACT_TEMPLATE[1] = 0x01;
+    CONTRACT_TEMPLATE[2] = 0x12;
+    CONTRACT_TEMPLATE[4] = 0x0A;
+    CONTRACT_TEMPLATE[5] = (byte) typeUrl.length;
+    System.arraycopy(typeUrl, 0, CONTRACT_TEMPLATE, 6, typeUrl.length);
+    CONTRACT_TEMPLATE[6 + typeUrl.length] = 0x12;
+    VALUE_LENGTH_SLOT = 7 + typeUrl.length;
+  }
+
+  /**
+   * ref_block_bytes and ref_block_hash fields, the head of every raw data.
+   */
+  private final byte[] rawTemplate;
+  private final long expiration;
+  private final byte[] buffer = new byte[MAX_FRAME_LENGTH];
+  private final byte[] hash = new byte[Hash.HASH_256_LENGTH];
+  private int offset;
+  private int length;
+  private int rawLength;
+
+  /**
+   * @param builder block reference and lifetime, shared with the protobuf path
+   */
+  public TransferEncoder(TransactionBuilder builder) {
+    byte[] refBlockBytes = builder.getRefBlockBytes().toByteArray();
+    byte[] refBlockHash = builder.getRefBlockHash().toByteArray();
+    rawTemplate = new byte[4 + refBlockBytes.length + refBlockHash.length];
+    rawTemplate[0] = 0x0A;
+    rawTemplate[1] = (byte) refBlockBytes.length;
+    System.arraycopy(refBlockBytes, 0, rawTemplate, 2, refBlockBytes.length);
+    rawTemplate[2 + refBlockBytes.length] = 0x22;
+    rawTemplate[3 + refBlockBytes.length] = (byte) refBlockHash.length;
+    System.arraycopy(refBlockHash, 0, rawTemplate, 4 + refBlockBytes.length,
+        refBlockHash.length);
+    this.expiration = builder.getExpiration();
+  }
+
+  /**
+   * Serializes the raw data of an unsigned transfer, expiring {@code expiration} milliseconds
+   * from now.
+   *
+   * @param timestamp 0 to leave it out, like an unset protobuf field
+   */
+  public TransferEncoder encode(byte[] owner, int ownerOffset, byte[] to, int toOffset,
+      long amount, long timestamp) {
+    int valueLength = 2 * (2 + ADDRESS_LENGTH) + (amount == 0 ? 0 : 1 + varintSize(amount));
+    int anyLength = CONTRACT_TEMPLATE.length - 4 + valueLength;
+    int contractLength = 4 + anyLength;
+
+    int p = RAW_OFFSET;
+    System.arraycopy(rawTemplate, 0, buffer, p, rawTemplate.length);
+    p += rawTemplate.length;
+    buffer[p++] = EXPIRATION_TAG;
+    p = writeVarint(System.currentTimeMillis() + expiration, p);
+
+    buffer[p++] = CONTRACT_TAG;
+    buffer[p++] = (byte) contractLength;
+    System.arraycopy(CONTRACT_TEMPLATE, 0, buffer, p, CONTRACT_TEMPLATE.length);
+    buffer[p + ANY_LENGTH_SLOT] = (byte) anyLength;
+    buffer[p + VALUE_LENGTH_SLOT] = (byte) valueLength;
+    p += CONTRACT_TEMPLATE.length;
+
+    buffer[p++] = OWNER_TAG;
+    buffer[p++] = ADDRESS_LENGTH;
+    System.arraycopy(owner, ownerOffset, buffer, p, ADDRESS_LENGTH);
+    p += ADDRESS_LENGTH;
+    buffer[p++] = TO_TAG;
+    buffer[p++] = ADDRESS_LENGTH;
+    System.arraycopy(to, toOffset, buffer, p, ADDRESS_LENGTH);
+    p += ADDRESS_LENGTH;
+    if (amount != 0) {
+      buffer[p++] = AMOUNT_TAG;
+      p = writeVarint(amount, p);
+    }
+
+    if (timestamp != 0) {
+      buffer[p++] = TIMESTAMP_TAG;
+      p = writeVarint(timestamp, p);
+    }
+
+    rawLength = p - RAW_OFFSET;
+    // the raw_data tag and length go right before the raw data
+    offset = RAW_OFFSET - 1 - varintSize(rawLength);
+    buffer[offset] = RAW_DATA_TAG;
+    writeVarint(rawLength, offset + 1);
+    length = p - offset;
+    return this;
+  }
+
+  /**
+   * @return sha256 of the raw data, the txid; reused by the next call
+   */
+  public byte[] hash() {
+    Hash.sha256(buffer, RAW_OFFSET, rawLength, hash, 0);
+    return hash;
+  }
+
+  /**
+   * Signs the raw data with key {@code i} of the signer's table and appends the signature.
+   */
+  public TransferEncoder sign(KeyTable.Signer signer, int i) {
+    return sign(signer.sign(i, hash()));
+  }
+
+  public TransferEncoder sign(ECDSASignature signature) {
+    int p = RAW_OFFSET + rawLength;
+    buffer[p++] = SIGNATURE_TAG;
+    buffer[p++] = SIGNATURE_LENGTH;
+    System.arraycopy(signature.toByteArray(), 0, buffer, p, SIGNATURE_LENGTH);
+    length = p + SIGNATURE_LENGTH - offset;
+    return this;
+  }
+
+  /**
+   * @return the buffer holding the serialized transaction at {@link #getOffset()}, overwritten by
+   * the next call
+   */
+  public byte[] getBuffer() {
+    return buffer;
+  }
+
+  public int getOffset() {
+    return offset;
+  }
+
+  public int getLength() {
+    return length;
+  }
+
+  public byte[] toByteArray() {
+    byte[] frame = new byte[length];
+    System.arraycopy(buffer, offset, frame, 0, length);
+    return frame;
+  }
+
+  private int writeVarint(long value, int p) {
+    while ((value & ~0x7FL) != 0) {
+      buffer[p++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[p++] = (byte) value;
+    return p;
+  }
+
+  private static int varintSize(long value) {
+    int size = 1;
+    while ((value & ~0x7FL) != 0) {
+      value >>>= 7;
+      size++;
+    }
+    return size;
+  }
+}
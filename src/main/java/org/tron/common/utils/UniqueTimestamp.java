@@ -0,0 +1,58 @@
+package org.tron.common.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transaction timestamps that are unique across every thread of the process, without a lock.
+ *
+ * <p>Timestamps keep the {@code millis * 1000000 + n} format the tool always stamped. Every
+ * thread claims a block of {@link #BLOCK} consecutive values with a single compare and set on the
+ * shared high water mark, then hands them out on its own. A block is given up when the clock
+ * moves to the next millisecond, so timestamps follow the wall clock; claimed blocks never
+ * overlap, so two threads can not get the same value. A thread only touches the shared counter
+ * once per block or per millisecond.
+ *
+ * <p>If the process ever claimed more than a million values in a millisecond the counter would
+ * simply run ahead of the clock, values stay unique and increasing.
+ */
+public class UniqueTimestamp {
+
+  static final int BLOCK = 256;
+  private static final long SCALE = 1_000_000L;
+
+  private static final AtomicLong highWater = new AtomicLong();
+  private static final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+  private UniqueTimestamp() {
+  }
+
+  /**
+   * @return a timestamp no other call returns, greater than the previous one of this thread
+   */
+  public static long next() {
+    Block block = blocks.get();
+    long floor = System.currentTimeMillis() * SCALE;
+    if (block.next >= block.end || block.next < floor) {
+      block.claim(floor);
+    }
+    return block.next++;
+  }
+
+  private static class Block {
+
+    private long next;
+    private long end;
+
+    void claim(long floor) {
+      while (true) {
+        long mark = highWater.get();
+        long start = Math.max(mark, floor);
+        if (highWater.compareAndSet(mark, start + BLOCK)) {
+          next = start;
+          end = start + BLOCK;
+          return;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package org.tron.program;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.LongStream;
+import lombok.Getter;
+import org.tron.Validator.StringValidator;
+import org.tron.api.GrpcAPI.Return.response_code;
+import org.tron.common.journal.JournalReader;
+import org.tron.common.journal.JournalStats;
+import org.tron.common.journal.ResultJournal;
+import org.tron.stress.metrics.LatencyRecorder;
+
+//Example --journal [path to results.journal] [--csv seconds.csv]
+public class AnalyzeJournal {
+
+  public static void main(String[] args) throws IOException {
+    AnalyzeJournalArgs args1 = new AnalyzeJournalArgs();
+    JCommander.newBuilder().addObject(args1).build().parse(args);
+
+    JournalStats stats;
+    String dropped;
+    try (JournalReader journal = new JournalReader(new File(args1.getJournal()))) {
+      dropped = journal.isClosed() ? String.valueOf(journal.getDropped())
+          : "unknown, the journal was not closed";
+      // every chunk was written by a single thread, each one is an independent task
+      stats = LongStream.range(0, journal.getChunks()).parallel()
+          .collect(JournalStats::new,
+              (partial, chunk) -> journal.read(chunk, partial::add),
+              JournalStats::merge);
+    }
+
+    System.out.println("results: " + stats.getCount() + ", dropped: " + dropped);
+    stats.getCodes().forEach((code, count) -> System.out.println(
+        "code " + name(code) + ": " + count));
+    stats.getNodes().forEach((node, count) -> System.out.println(
+        "node " + node + ": " + count));
+    System.out.println("response time: " + LatencyRecorder.format(stats.getResponseTime()));
+    System.out.println("service time: " + LatencyRecorder.format(stats.getServiceTime()));
+    System.out.println("send lag: " + LatencyRecorder.format(stats.getSendLag()));
+
+    if (args1.getCsv() != null) {
+      try (PrintWriter out = new PrintWriter(new File(args1.getCsv()),
+          StandardCharsets.UTF_8.name())) {
+        out.println("second,results,success");
+        stats.getSeconds().forEach((second, counts) -> out.println(
+            second + "," + counts[0] + "," + counts[1]));
+      }
+    }
+  }
+
+  private static String name(int code) {
+    if (code == ResultJournal.RPC_FAILURE) {
+      return "RPC_FAILURE";
+    }
+    response_code value = response_code.forNumber(code);
+    return value == null ? String.valueOf(code) : value.name();
+  }
+}
+
+class AnalyzeJournalArgs {
+
+  @Getter
+  @Parameter(names = {
+      "--journal"}, description = "Journal written by SendCoinLoop --journal", required = true, validateWith = StringValidator.class)
+  private String journal;
+
+  @Getter
+  @Parameter(names = {
+      "--csv"}, description = "CSV file receiving the results per second of intended send time", validateWith = StringValidator.class)
+  private String csv;
+}
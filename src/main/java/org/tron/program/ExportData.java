@@ -3,35 +3,35 @@ package org.tron.program;
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import lombok.Getter;
 import org.apache.commons.csv.CSVRecord;
 import org.tron.Validator.LongValidator;
 import org.tron.Validator.StringValidator;
-import org.tron.common.crypto.ECKey;
+import org.tron.common.corpus.CorpusWriter;
+import org.tron.common.crypto.KeyTable;
 import org.tron.common.utils.Base58;
 import org.tron.common.utils.CsvUtils;
+import org.tron.common.utils.TransactionBuilder;
+import org.tron.common.utils.TransferEncoder;
+import org.tron.common.utils.UniqueTimestamp;
 import org.tron.common.utils.Utils;
 import org.tron.protos.Contract;
-import org.tron.protos.Protocol.Transaction;
 import org.tron.service.GrpcClient;
 import org.tron.service.WalletClient;
-import org.tron.protos.Contract.TransferContract;
 import org.tron.common.utils.ByteArray;
 import java.lang.reflect.Method;
 
 public class ExportData {
 
-  private static WalletClient walletClient;
-
   //Example:
-  //--toaddress toaddress.csv --amount 1 --output trxsdata.csv --count 10000 --privatekey privatekey.csv
+  //--toaddress toaddress.csv --amount 1 --output trxsdata.csv --count 10000 --privatekey privatekey.csv [--expiration 3600]
   public static void main(String[] args) throws IOException {
     Args argsObj = new Args();
     JCommander.newBuilder().addObject(argsObj).build().parse(args);
@@ -54,8 +54,8 @@ public class ExportData {
       return;
     }
 
-    walletClient = new WalletClient(privateKeyList.get(0));
-    walletClient.init();
+    // public keys and addresses are derived once, in parallel
+    KeyTable keys = KeyTable.fromHex(privateKeyList);
 
     for (String toAddress : toAddressList) {
       byte[] addressBytes = Base58.decodeFromBase58Check(toAddress);
@@ -63,44 +63,47 @@ public class ExportData {
     }
     long amount = argsObj.getAmount();
 
-    ConcurrentLinkedQueue<Transaction> transactions = new ConcurrentLinkedQueue<>();
-    AtomicInteger counter = new AtomicInteger(0);
+    // one block reference for the whole run, the node is not asked to create any transaction
+    TransactionBuilder builder = new TransactionBuilder(WalletClient.getBlockReference(),
+        argsObj.getExpiration() * 1000L);
+
+    // every thread serializes and signs into its own encoder, no protobuf object is built
+    // the unique timestamp keeps two transfers of the same pair in one millisecond apart
+    long start = System.nanoTime();
+    int count = (int) argsObj.getCount();
+    byte[][] frames = new byte[count][];
+    ThreadLocal<EncoderState> states = ThreadLocal
+        .withInitial(() -> new EncoderState(builder, keys));
+    IntStream.range(0, count).parallel().forEach(i -> {
+      EncoderState state = states.get();
+      int key = i % privateKeySize;
+      keys.copyAddress(key, state.owner, 0);
+      frames[i] = state.encoder
+          .encode(state.owner, 0, toAddressByteList.get(i % addressSize), 0, amount,
+              UniqueTimestamp.next())
+          .sign(state.signer, key)
+          .toByteArray();
+    });
+    double seconds = (System.nanoTime() - start) / 1e9;
+    // the stream runs on the common pool and on the calling thread
+    int threads = ForkJoinPool.commonPool().getParallelism() + 1;
+    System.out.println(String.format(
+        "signatures: %d, threads: %d, sig/s: %.0f, sig/s per core: %.0f", count, threads,
+        count / seconds, count / seconds / threads));
+    System.out.println("create transaction current: " + count);
 
-    int availProcessors = Runtime.getRuntime().availableProcessors();
-    List<Integer> processors = new ArrayList<>();
-    for (int i = 0; i < availProcessors; i++) {
-      processors.add(i);
-    }
+    AtomicInteger counter = new AtomicInteger(0);
 
-    processors.stream().parallel().forEach(item -> {
-      for (int i = 0; i < argsObj.getCount() / processors.size(); i++) {
-        int c = counter.incrementAndGet();
-        ECKey key =  ECKey.fromPrivate(ByteArray.fromHexString(privateKeyList.get(c % privateKeySize)));
-        byte[] owner = key.getAddress();
-        TransferContract contract = WalletClient
-                .createTransferContract(toAddressByteList.get(c % addressSize),owner , amount);
-        Transaction transaction = walletClient.createTransaction4Transfer(contract);
-        transaction = walletClient.signTransaction(transaction);
-        transactions.add(transaction);
+    File f = new File(argsObj.getOutput());
+    try (CorpusWriter writer = new CorpusWriter(f)) {
+      for (byte[] frame : frames) {
+        writer.write(frame);
+        long c = counter.incrementAndGet();
         if ((c + 1) % 1000 == 0) {
-          System.out.println("create transaction current: " + (c + 1));
+          System.out.println("write file current: " + (c + 1));
         }
       }
-    });
-    counter.getAndSet(0);
-
-    File f = new File(argsObj.getOutput());
-    FileOutputStream fos = new FileOutputStream(f);
-
-    for (Transaction transaction : transactions) {
-      transaction.writeDelimitedTo(fos);
-      long c = counter.incrementAndGet();
-      if ((c + 1) % 1000 == 0) {
-        System.out.println("write file current: " + (c + 1));
-      }
     }
-    fos.flush();
-    fos.close();
   }
 
   private static List<String> getStrings(String filePath) {
@@ -115,6 +118,18 @@ public class ExportData {
   }
 }
 
+class EncoderState {
+
+  final TransferEncoder encoder;
+  final KeyTable.Signer signer;
+  final byte[] owner = new byte[KeyTable.ADDRESS_LENGTH];
+
+  EncoderState(TransactionBuilder builder, KeyTable keys) {
+    this.encoder = new TransferEncoder(builder);
+    this.signer = keys.newSigner();
+  }
+}
+
 class Args {
 
   @Getter
@@ -141,4 +156,9 @@ class Args {
   @Parameter(names = {
       "--output"}, description = "Save data file", required = true, validateWith = StringValidator.class)
   private String output;
+
+  @Getter
+  @Parameter(names = {
+      "--expiration"}, description = "Transaction lifetime in seconds", validateWith = LongValidator.class)
+  private long expiration = 60 * 60;
 }
\ No newline at end of file
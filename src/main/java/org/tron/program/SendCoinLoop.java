@@ -4,84 +4,373 @@ import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
-import com.google.common.util.concurrent.RateLimiter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import javax.management.JMException;
 
+import com.google.common.collect.Iterators;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
 import lombok.Getter;
 import org.tron.Validator.LongValidator;
+import org.tron.Validator.NonNegativeDoubleValidator;
+import org.tron.Validator.NonNegativeLongValidator;
 import org.tron.Validator.StringValidator;
+import org.tron.api.GrpcAPI;
+import org.tron.common.corpus.CorpusReader;
+import org.tron.common.journal.ResultJournal;
 import org.tron.common.crypto.ECKey;
+import org.tron.common.crypto.Hash;
+import org.tron.common.crypto.KeyDerivation;
+import org.tron.common.crypto.KeyTable;
+import org.tron.common.utils.Base58;
+import org.tron.common.utils.CsvUtils;
+import org.tron.common.utils.TransactionBuilder;
+import org.tron.common.utils.TransactionUtils;
+import org.tron.core.config.Configuration;
 import org.tron.common.utils.Utils;
 import org.tron.protos.Protocol.Transaction;
+import org.tron.service.BroadcastEngine;
+import org.tron.service.ChannelPool;
+import org.tron.service.ChannelPool.Node;
+import org.tron.service.ConfirmationTracker;
 import org.tron.service.WalletClient;
+import org.tron.stress.AimdController;
+import org.tron.stress.ContractGenerator;
+import org.tron.stress.LoadProfile;
+import org.tron.stress.OpenLoopScheduler;
+import org.tron.stress.ProfilePacer;
+import org.tron.stress.SaturationSweep;
+import org.tron.stress.TransactionGenerator;
+import org.tron.stress.WorkloadMix;
+import org.tron.stress.metrics.BroadcastMetrics;
+import org.tron.stress.metrics.Counter;
+import org.tron.stress.metrics.LatencyRecorder;
+import org.tron.stress.metrics.MetricsMBean;
+import org.tron.stress.metrics.MetricsRegistry;
+import org.tron.stress.metrics.PrometheusEndpoint;
+import org.tron.stress.metrics.ResponseCounter;
+import org.tron.stress.metrics.TimeSeriesWriter;
 
 
-//Example --tps 2000 --datafile [path to trxsdata.csv]
+//Example --tps 2000 --datafile [path to trxsdata.csv] [--window 256] [--confirm]
+//   or   --tps 2000 --privatekey privatekey.csv [--toaddress toaddress.csv] [--count 0]
+//   or   --tps 2000 --seed [passphrase] --accounts 100000 [--first 0] [--count 0]
+//   generated ones [--mix transfer:70,asset:20,vote:10 --asset [name]]
+//   --profile [name] instead of --tps plays profiles.[name] of config.conf
+//   --sweep [--sweep-start 500 --sweep-step 500] searches the knee up to --tps, write it with
+//   [--sweep-output curve.csv], needs an endless run (--count 0) or a big enough corpus
+//   any of them [--journal results.journal], read by AnalyzeJournal
 public class SendCoinLoop {
   private static final int THREAD_COUNT = 16;
+  /**
+   * Smallest balance the node lets an account freeze, for the shortest duration.
+   */
+  private static final long FREEZE_AMOUNT = 1_000_000L;
+  private static final long FREEZE_DAYS = 3;
 
-  private static List<WalletClient> walletClients = new ArrayList<>();
+  private static BroadcastEngine engine;
+  private static ConfirmationTracker tracker;
+  private static CorpusReader corpus;
+  private static TransactionGenerator generator;
+  private static ResultJournal journal;
   private static Map<Long, List<Transaction>> transactionsMap = new HashMap<>();
 
   public static void main(String[] args) throws IOException {
     SendCoinArgs args1 = new SendCoinArgs();
     JCommander.newBuilder().addObject(args1).build().parse(args);
 
-    double tps = args1.getTps();
+    LoadProfile profile = null;
+    if (args1.getProfile() != null) {
+      if (args1.isAimd() || args1.isSweep()) {
+        System.out.println("--aimd, --profile and --sweep all set the rate, use only one");
+        return;
+      }
+      Config profiles;
+      if (args1.getProfileConfig() == null) {
+        profiles = Configuration.getByPath("config.conf");
+      } else if (new File(args1.getProfileConfig()).isFile()) {
+        profiles = ConfigFactory.parseFile(new File(args1.getProfileConfig())).resolve();
+      } else {
+        System.out.println(args1.getProfileConfig() + " not found");
+        return;
+      }
+      profile = LoadProfile.fromConfig(profiles, args1.getProfile());
+    } else if (args1.getTps() <= 0) {
+      System.out.println("--tps or --profile is required");
+      return;
+    } else if (args1.isAimd() && args1.isSweep()) {
+      System.out.println("--aimd, --profile and --sweep all set the rate, use only one");
+      return;
+    }
+    // the confirmation table is sized for the highest rate of the run
+    double tps = profile != null ? profile.getPeakRate() : args1.getTps();
+
+    engine = new BroadcastEngine(WalletClient.getChannelPool(), args1.getWindow());
+
+    if (args1.getPrivateKey() != null || args1.getSeed() != null) {
+      // generate and sign while sending, no data file
+      KeyTable keys = args1.getSeed() != null
+          ? KeyDerivation.fromPassphrase(args1.getSeed())
+              .derive(args1.getFirst(), args1.getAccounts())
+          : KeyTable.load(new File(args1.getPrivateKey()));
+      List<byte[]> receivers = args1.getToAddress() == null ? Collections.emptyList()
+          : CsvUtils.read(new File(args1.getToAddress())).stream()
+              .map(r -> Base58.decodeFromBase58Check(r.get(0)))
+              .collect(Collectors.toList());
+      TransactionBuilder builder = new TransactionBuilder(WalletClient.getBlockReference(),
+          TransactionBuilder.DEFAULT_EXPIRATION);
+      WorkloadMix mix = WorkloadMix.parse(args1.getMix(),
+          name -> contractGenerator(name, receivers, args1));
+      System.out.println("workload mix: " + mix);
+      generator = new TransactionGenerator(keys, mix, args1.getCount(), builder,
+          args1.getProducers(), args1.getRing());
+      generator.start();
+    } else if (args1.getDataFile() == null) {
+      System.out.println("--datafile, --privatekey or --seed is required");
+      return;
+    } else if (CorpusReader.isCorpus(new File(args1.getDataFile()))) {
+      // mapped, every thread parses its own share right before sending it
+      corpus = new CorpusReader(new File(args1.getDataFile()));
+    } else {
+      FileInputStream fis = new FileInputStream(args1.getDataFile());
+
+      Transaction transaction;
+      long trxCount = 0;
+      while ((transaction = Transaction.parseDelimitedFrom(fis)) != null) {
+        transactionsMap.computeIfAbsent(trxCount % THREAD_COUNT, k -> new ArrayList<>())
+            .add(transaction);
+        trxCount++;
+      }
+    }
+
+    if (args1.isConfirm()) {
+      tracker = ConfirmationTracker.fromConfig(Configuration.getByPath("config.conf"),
+          (long) tps * 120, args1.getConfirmTimeout() * 1000L);
+      tracker.start();
+    }
+
+    if (args1.getJournal() != null) {
+      long capacity = args1.getJournalCapacity() > 0 ? args1.getJournalCapacity()
+          : journalCapacity(args1, profile, tps);
+      System.out.println("journal capacity: " + capacity);
+      journal = new ResultJournal(new File(args1.getJournal()), capacity);
+      // an endless run ends with a kill, the drop count must still reach the header
+      ResultJournal closing = journal;
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        try {
+          closing.close();
+        } catch (IOException e) {
+          e.printStackTrace();
+        }
+      }, "journal-close"));
+    }
+
+    // per node, contract type and code results, exported while the run goes on
+    MetricsRegistry registry = MetricsRegistry.getDefault();
+    engine.setMetrics(new BroadcastMetrics(registry, engine.getPool().getNodes()));
+    registry.gauge("broadcast_outstanding", engine::getOutstanding);
+    if (generator != null) {
+      registry.gauge("generator_ring_occupancy", generator::getOccupancy);
+    }
+    try {
+      MetricsMBean.register(registry);
+    } catch (JMException e) {
+      System.out.println("metrics not registered over JMX: " + e);
+    }
+    PrometheusEndpoint endpoint = null;
+    if (args1.getMetricsPort() > 0) {
+      endpoint = new PrometheusEndpoint(registry, args1.getMetricsPort());
+      endpoint.start();
+    }
+    TimeSeriesWriter series = null;
+    if (args1.getMetricsFile() != null) {
+      series = new TimeSeriesWriter(registry, new File(args1.getMetricsFile()));
+      series.start();
+    }
+
+    rateLimiter(tps, profile, args1);
 
-    walletClients = IntStream.range(0, THREAD_COUNT).mapToObj(i -> {
-      WalletClient walletClient = new WalletClient(true);
-      walletClient.init();
-      return walletClient;
-    }).collect(Collectors.toList());
+    if (journal != null) {
+      System.out.println("journal dropped: " + journal.getDropped());
+      journal.close();
+    }
+    if (series != null) {
+      series.close();
+    }
+    if (endpoint != null) {
+      endpoint.stop();
+    }
+  }
 
-    File f = new File(args1.getDataFile());
-    FileInputStream fis = new FileInputStream(f);
+  /**
+   * Results expected from the run: its transactions when they are counted, the whole profile, or
+   * an hour at the highest rate for an endless run. The file is sparse, unused records cost no
+   * disk.
+   */
+  private static long journalCapacity(SendCoinArgs args, LoadProfile profile, double tps) {
+    long results;
+    if (corpus != null) {
+      results = corpus.size();
+    } else if (generator != null && args.getCount() > 0) {
+      results = args.getCount();
+    } else if (generator == null) {
+      results = transactionsMap.values().stream().mapToLong(List::size).sum();
+    } else if (profile != null) {
+      results = (long) (profile.getPeakRate() * profile.getDurationNanos() / 1e9);
+    } else {
+      results = (long) (tps * TimeUnit.HOURS.toSeconds(1));
+    }
+    // every thread delivering results holds a chunk it may not fill
+    return results + ResultJournal.CHUNK_SLACK;
+  }
 
-    Transaction transaction;
-    long trxCount = 0;
-    while ((transaction = Transaction.parseDelimitedFrom(fis)) != null) {
-      transactionsMap.computeIfAbsent(trxCount % THREAD_COUNT, k -> new ArrayList<>())
-          .add(transaction);
-      trxCount++;
+  /**
+   * @return the generator of a {@code --mix} name, null if unknown
+   */
+  private static ContractGenerator contractGenerator(String name, List<byte[]> receivers,
+      SendCoinArgs args) {
+    switch (name) {
+      case "transfer":
+        return ContractGenerator.transfer(receivers, args.getAmount());
+      case "asset":
+        return ContractGenerator.transferAsset(requireAsset(args), receivers, args.getAmount());
+      case "participate":
+        // an unknown asset comes back as the default instance, without an issuer
+        ByteString issuer = WalletClient.getAssetIssueByName(requireAsset(args))
+            .getOwnerAddress();
+        if (issuer.isEmpty()) {
+          throw new IllegalArgumentException("No asset issue named " + args.getAsset());
+        }
+        return ContractGenerator.participateAssetIssue(args.getAsset(),
+            issuer.toByteArray(), args.getAmount());
+      case "freeze":
+        return ContractGenerator.freezeBalance(FREEZE_AMOUNT, FREEZE_DAYS);
+      case "unfreeze":
+        return ContractGenerator.unfreezeBalance();
+      case "vote":
+        List<byte[]> witnesses = WalletClient.listWitnesses()
+            .map(list -> list.getWitnessesList().stream()
+                .map(w -> w.getAddress().toByteArray())
+                .collect(Collectors.toList()))
+            .orElse(Collections.emptyList());
+        if (witnesses.isEmpty()) {
+          throw new IllegalStateException("No witness to vote for");
+        }
+        return ContractGenerator.voteWitness(witnesses);
+      case "update":
+        return ContractGenerator.updateAccount();
+      case "withdraw":
+        return ContractGenerator.withdrawBalance();
+      default:
+        return null;
     }
+  }
 
-    rateLimiter(tps);
+  private static String requireAsset(SendCoinArgs args) {
+    if (args.getAsset() == null) {
+      throw new IllegalArgumentException("--asset is required by the asset contracts");
+    }
+    return args.getAsset();
   }
 
-  public static void rateLimiter(double tps) {
+  /**
+   * @param profile null for a constant {@code tps}, the run then ends with the transactions
+   */
+  public static void rateLimiter(double tps, LoadProfile profile, SendCoinArgs args) {
     ListeningExecutorService executorService = MoreExecutors
         .listeningDecorator(Executors.newFixedThreadPool(THREAD_COUNT));
     CountDownLatch latch = new CountDownLatch(THREAD_COUNT);
-    RateLimiter limiter = RateLimiter.create(tps);
+    OpenLoopScheduler scheduler = new OpenLoopScheduler(Math.max(ProfilePacer.MIN_RATE, tps));
+    MetricsRegistry.getDefault().gauge("send_rate_target", () -> (long) scheduler.getRate());
+    AimdController controller = null;
+    if (args.isAimd()) {
+      // tps becomes the ceiling, the rate backs off whenever the node answers SERVER_BUSY
+      controller = AimdController.of(scheduler, Task.responses, tps);
+      controller.start(1, TimeUnit.SECONDS);
+    }
+    ProfilePacer pacer = null;
+    if (profile != null) {
+      // the run ends with the profile, a paused scheduler must let the senders see it
+      pacer = new ProfilePacer(profile, scheduler, () -> {
+        Task.stop();
+        scheduler.resume();
+      });
+      pacer.start(100, TimeUnit.MILLISECONDS);
+    }
+    SaturationSweep sweep = null;
+    if (args.isSweep()) {
+      // tps is the highest rate tried, each phase pauses the senders until the engine drains
+      sweep = new SaturationSweep(scheduler, engine, args.getSweepStart(), args.getSweepStep(),
+          tps, args.getSweepResolution(), TimeUnit.SECONDS.toNanos(args.getSweepWarmup()),
+          TimeUnit.SECONDS.toNanos(args.getSweepPhase()),
+          new SaturationSweep.Thresholds(1 - args.getSweepShortfall() / 100D,
+              args.getSweepErrors() / 100D, TimeUnit.MILLISECONDS.toMicros(args.getSweepP99())));
+      scheduler.pause();
+    }
 
     for (int i = 0; i < THREAD_COUNT; ++i) {
-      executorService.execute(new Task(walletClients.get(i % THREAD_COUNT), limiter,
-          transactionsMap.get((i % THREAD_COUNT * 1L)), THREAD_COUNT));
-      latch.countDown();
+      // corpus slices are sent as they are, the stub would only serialize the others again
+      Iterator<ByteBuffer> transactions;
+      if (generator != null) {
+        transactions = Iterators.transform(generator.iterator(i), Task::serialize);
+      } else if (corpus != null) {
+        transactions = corpus.slices(i, THREAD_COUNT);
+      } else {
+        transactions = Iterators.transform(transactionsMap
+            .getOrDefault(i % THREAD_COUNT * 1L, Collections.emptyList()).iterator(),
+            Task::serialize);
+      }
+      executorService.execute(new Task(i, engine, scheduler, transactions, THREAD_COUNT, latch,
+          tracker, generator, journal, sweep));
     }
 
     try {
+      if (sweep != null) {
+        double knee = sweep.run();
+        Task.stop();
+        scheduler.resume();
+        sweep.getCurve().forEach(point -> System.out.println("sweep " + point));
+        System.out.println("knee: " + (long) knee + "/s");
+        if (args.getSweepOutput() != null) {
+          sweep.writeCsv(new File(args.getSweepOutput()));
+        }
+      }
       latch.await();
-    } catch (InterruptedException e) {
+      engine.awaitCompletion();
+      engine.getPool().getNodes().forEach(System.out::println);
+      System.out.println("latency total: " + Task.latencyTotal());
+      System.out.println("responses total: " + Task.responses.totalReport());
+      if (tracker != null) {
+        tracker.awaitDrain();
+        System.out.println("confirmation total: " + tracker.totalReport());
+      }
+    } catch (InterruptedException | IOException e) {
       e.printStackTrace();
     } finally {
       executorService.shutdown();
+      if (controller != null) {
+        controller.shutdown();
+      }
+      if (pacer != null) {
+        pacer.shutdown();
+      }
     }
   }
 }
@@ -91,13 +380,25 @@ class Task implements Runnable {
   private static LongAdder trueCount = new LongAdder();
   private static LongAdder falseCount = new LongAdder();
   private static LongAdder currentCount = new LongAdder();
-  private static ConcurrentHashMap<Long, LongAdder> resultMap = new ConcurrentHashMap<>();
+  // achieved is broadcast_responses_total, offered the slots handed out by the scheduler
+  private static final Counter offered = MetricsRegistry.getDefault()
+      .counter("transactions_offered_total");
+  // measured from the intended send time, not from the actual one
+  private static LatencyRecorder latency = new LatencyRecorder();
+  static final ResponseCounter responses = new ResponseCounter();
+  private static ConfirmationTracker tracker;
+  private static TransactionGenerator generator;
+  private static ResultJournal journal;
+  private static SaturationSweep sweep;
   public static final ScheduledExecutorService service = Executors
       .newSingleThreadScheduledExecutor();
-  private WalletClient walletClient;
-  private RateLimiter limiter;
-  private List<Transaction> transactions;
+  private final int index;
+  private BroadcastEngine engine;
+  private static OpenLoopScheduler scheduler;
+  private Iterator<ByteBuffer> transactions;
+  private CountDownLatch latch;
   private static LongAdder endCounts = new LongAdder();
+  private static volatile boolean stopped;
   private static int threadCount;
 
   static {
@@ -106,8 +407,18 @@ class Task implements Runnable {
           "current: " + currentCount.longValue()
               + ", true: " + trueCount.longValue()
               + ", false: " + falseCount.longValue()
-              + ", timestamp: " + (System.currentTimeMillis() / 1000)
-              + ", map: " + resultMap);
+              + ", timestamp: " + (System.currentTimeMillis() / 1000));
+      System.out.println("latency: " + LatencyRecorder.format(latency.nextInterval()));
+      System.out.println("responses: " + responses.nextInterval());
+      if (scheduler != null) {
+        System.out.println("rate: " + (long) scheduler.getRate() + "/s");
+      }
+      if (tracker != null) {
+        System.out.println("confirmation: " + tracker.report());
+      }
+      if (generator != null) {
+        System.out.println(generator.report());
+      }
 
       if (endCounts.longValue() == threadCount) {
         service.shutdown();
@@ -115,41 +426,120 @@ class Task implements Runnable {
     }, 5, 5, TimeUnit.SECONDS);
   }
 
-  public Task(final WalletClient walletClient, RateLimiter limiter,
-      List<Transaction> transactions, int threadCount) {
-    this.walletClient = walletClient;
-    this.limiter = limiter;
+  public Task(int index, final BroadcastEngine engine, OpenLoopScheduler scheduler,
+      Iterator<ByteBuffer> transactions, int threadCount, CountDownLatch latch,
+      ConfirmationTracker tracker, TransactionGenerator generator, ResultJournal journal,
+      SaturationSweep sweep) {
+    this.index = index;
+    this.engine = engine;
+    this.scheduler = scheduler;
     this.transactions = transactions;
     this.threadCount = threadCount;
+    this.latch = latch;
+    this.tracker = tracker;
+    this.generator = generator;
+    this.journal = journal;
+    this.sweep = sweep;
+  }
+
+  /**
+   * Senders return after the transaction they are sending.
+   */
+  static void stop() {
+    stopped = true;
+  }
+
+  static String latencyTotal() {
+    latency.nextInterval();
+    return LatencyRecorder.format(latency.getTotal());
+  }
+
+  static ByteBuffer serialize(Transaction transaction) {
+    return ByteBuffer.wrap(transaction.toByteArray());
+  }
+
+  private static byte[] owner(ByteBuffer transaction) {
+    try {
+      return TransactionUtils.getOwner(Transaction.parseFrom(transaction.duplicate())
+          .getRawData().getContract(0));
+    } catch (InvalidProtocolBufferException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static byte[] txid(ByteBuffer transaction) {
+    byte[] txid = new byte[Hash.HASH_256_LENGTH];
+    Hash.sha256(TransactionUtils.getRawDataSlice(transaction), txid, 0);
+    return txid;
+  }
+
+  private static void record(boolean b) {
+    if (b) {
+      trueCount.increment();
+    } else {
+      falseCount.increment();
+    }
+
+    currentCount.increment();
   }
 
   @Override
   public void run() {
-    if (this.transactions != null) {
-      this.transactions.forEach(t -> {
-        limiter.acquire();
-        boolean b = false;
-        b = walletClient.broadcastTransaction(t).getResult();
-//        try {
-//          b = walletClient.broadcastTransaction(t.getRawData().toByteArray());
-//        } catch (InvalidProtocolBufferException e) {
-//          e.printStackTrace();
-//        }
-
-        if (b) {
-          trueCount.increment();
-        } else {
-          falseCount.increment();
+    while (!stopped && transactions.hasNext()) {
+      ByteBuffer t = transactions.next();
+      long intended = scheduler.acquire();
+      if (stopped) {
+        break;
+      }
+      offered.increment();
+      byte[] key = null;
+      if (engine.getPool().getStrategy() == ChannelPool.Strategy.KEY) {
+        // the only case a replayed transaction is parsed
+        key = owner(t);
+      }
+      engine.broadcast(key, t, new BroadcastEngine.Callback() {
+        @Override
+        public void onSuccess(Node node, GrpcAPI.Return result, long sent) {
+          long ack = System.nanoTime();
+          latency.record(ack - intended);
+          responses.record(result);
+          record(result.getResult());
+          if (sweep != null) {
+            sweep.record(ack - intended, result.getResult());
+          }
+          boolean confirm = tracker != null && result.getResult();
+          if (confirm || journal != null) {
+            byte[] txid = txid(t);
+            if (journal != null) {
+              journal.record(txid, index, intended, sent, ack, node.getId(),
+                  result.getCodeValue());
+            }
+            if (confirm) {
+              // the tracker counts from the send, in wall clock time like the blocks
+              tracker.onBroadcast(txid,
+                  System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(ack - sent));
+            }
+          }
         }
 
-        currentCount.increment();
-
-        long currentMinutes = System.currentTimeMillis() / 1000L / 60;
-
-        resultMap.computeIfAbsent(currentMinutes, k -> new LongAdder()).increment();
+        @Override
+        public void onFailure(Node node, Throwable e, long sent) {
+          long ack = System.nanoTime();
+          latency.record(ack - intended);
+          responses.recordFailure(e);
+          record(false);
+          if (sweep != null) {
+            sweep.record(ack - intended, false);
+          }
+          if (journal != null) {
+            journal.record(txid(t), index, intended, sent, ack, node.getId(),
+                ResultJournal.RPC_FAILURE);
+          }
+        }
       });
     }
     this.endCounts.increment();
+    latch.countDown();
   }
 }
 
@@ -157,11 +547,166 @@ class SendCoinArgs {
 
   @Getter
   @Parameter(names = {
-      "--datafile"}, description = "Data file", required = true, validateWith = StringValidator.class)
+      "--datafile"}, description = "Data file", validateWith = StringValidator.class)
   private String dataFile;
 
   @Getter
   @Parameter(names = {
-      "--tps"}, description = "tps", required = true, validateWith = LongValidator.class)
+      "--privatekey"}, description = "Private key file, transactions are generated while sending", validateWith = StringValidator.class)
+  private String privateKey;
+
+  @Getter
+  @Parameter(names = {
+      "--seed"}, description = "Passphrase the sender keys are derived from, instead of a private key file", validateWith = StringValidator.class)
+  private String seed;
+
+  @Getter
+  @Parameter(names = {
+      "--first"}, description = "Index of the first derived key, boxes sharing a seed take disjoint ranges")
+  private long first = 0;
+
+  @Getter
+  @Parameter(names = {
+      "--accounts"}, description = "Derived keys", validateWith = LongValidator.class)
+  private int accounts = 1000;
+
+  @Getter
+  @Parameter(names = {
+      "--toaddress"}, description = "To address file, keys send to each other if missing", validateWith = StringValidator.class)
+  private String toAddress;
+
+  @Getter
+  @Parameter(names = {
+      "--amount"}, description = "Amount of generated transfers", validateWith = LongValidator.class)
+  private long amount = 1;
+
+  @Getter
+  @Parameter(names = {
+      "--mix"}, description = "Weighted contracts of generated transactions: transfer, asset, participate, freeze, unfreeze, vote, update and withdraw, e.g. transfer:70,asset:20,vote:10", validateWith = StringValidator.class)
+  private String mix = "transfer";
+
+  @Getter
+  @Parameter(names = {
+      "--asset"}, description = "TRC10 asset of the asset and participate contracts", validateWith = StringValidator.class)
+  private String asset;
+
+  @Getter
+  @Parameter(names = {
+      "--count"}, description = "Transactions to generate, 0 to run until stopped")
+  private long count = 0;
+
+  @Getter
+  @Parameter(names = {
+      "--producers"}, description = "Generating threads", validateWith = LongValidator.class)
+  private int producers = Runtime.getRuntime().availableProcessors();
+
+  @Getter
+  @Parameter(names = {
+      "--ring"}, description = "Signed transactions buffered per generating thread", validateWith = LongValidator.class)
+  private int ring = 8192;
+
+  @Getter
+  @Parameter(names = {
+      "--tps"}, description = "tps, required without --profile", validateWith = LongValidator.class)
   private double tps;
+
+  @Getter
+  @Parameter(names = {
+      "--profile"}, description = "Load profile played instead of a constant --tps, see profiles in config.conf", validateWith = StringValidator.class)
+  private String profile;
+
+  @Getter
+  @Parameter(names = {
+      "--profile-config"}, description = "HOCON file declaring the profiles, config.conf of the classpath if missing", validateWith = StringValidator.class)
+  private String profileConfig;
+
+  @Getter
+  @Parameter(names = {
+      "--window"}, description = "Max in flight broadcasts per channel", validateWith = LongValidator.class)
+  private int window = 256;
+
+  @Getter
+  @Parameter(names = {
+      "--confirm"}, description = "Follow the blocks to measure inclusion latency")
+  private boolean confirm = false;
+
+  @Getter
+  @Parameter(names = {
+      "--confirm-timeout"}, description = "Seconds before an unconfirmed transaction counts as dropped", validateWith = LongValidator.class)
+  private long confirmTimeout = 120;
+
+  @Getter
+  @Parameter(names = {
+      "--aimd"}, description = "Back off on SERVER_BUSY, --tps is then the highest rate")
+  private boolean aimd = false;
+
+  @Getter
+  @Parameter(names = {
+      "--sweep"}, description = "Search the highest sustained rate up to --tps instead of sending at --tps")
+  private boolean sweep = false;
+
+  @Getter
+  @Parameter(names = {
+      "--sweep-start"}, description = "First rate of the sweep", validateWith = LongValidator.class)
+  private double sweepStart = 500;
+
+  @Getter
+  @Parameter(names = {
+      "--sweep-step"}, description = "Rate added after every sustained phase", validateWith = LongValidator.class)
+  private double sweepStep = 500;
+
+  @Getter
+  @Parameter(names = {
+      "--sweep-resolution"}, description = "Precision of the knee, in transactions per second", validateWith = LongValidator.class)
+  private double sweepResolution = 50;
+
+  @Getter
+  @Parameter(names = {
+      "--sweep-warmup"}, description = "Seconds of each phase not measured", validateWith = NonNegativeLongValidator.class)
+  private long sweepWarmup = 10;
+
+  @Getter
+  @Parameter(names = {
+      "--sweep-phase"}, description = "Measured seconds of each phase", validateWith = LongValidator.class)
+  private long sweepPhase = 30;
+
+  @Getter
+  @Parameter(names = {
+      "--sweep-shortfall"}, description = "Percent of the offered rate that may go unanswered before a phase saturates", validateWith = NonNegativeDoubleValidator.class)
+  private double sweepShortfall = 5;
+
+  @Getter
+  @Parameter(names = {
+      "--sweep-errors"}, description = "Percent of failed answers that saturates a phase", validateWith = NonNegativeDoubleValidator.class)
+  private double sweepErrors = 1;
+
+  @Getter
+  @Parameter(names = {
+      "--sweep-p99"}, description = "p99 latency in milliseconds that saturates a phase", validateWith = LongValidator.class)
+  private long sweepP99 = 1000;
+
+  @Getter
+  @Parameter(names = {
+      "--sweep-output"}, description = "CSV file receiving the throughput/latency curve", validateWith = StringValidator.class)
+  private String sweepOutput;
+
+  @Getter
+  @Parameter(names = {
+      "--metrics-port"}, description = "Local port of the Prometheus endpoint, 0 for none")
+  private int metricsPort = 0;
+
+  @Getter
+  @Parameter(names = {
+      "--metrics-file"}, description = "CSV file receiving every metric once per second", validateWith = StringValidator.class)
+  private String metricsFile;
+
+  @Getter
+  @Parameter(names = {
+      "--journal"}, description = "File receiving one record per result, see AnalyzeJournal", validateWith = StringValidator.class)
+  private String journal;
+
+  @Getter
+  @Parameter(names = {
+      "--journal-capacity"}, description = "Results the journal can hold, 64 bytes each, the file is sized up front; 0 to size it from the run")
+  private long journalCapacity = 0;
 }
\ No newline at end of file
@@ -9,7 +9,6 @@ import java.io.*;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -18,23 +17,41 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import javax.management.JMException;
 import lombok.Getter;
 import org.apache.commons.csv.CSVRecord;
 import org.tron.Validator.LongValidator;
 import org.tron.Validator.StringValidator;
 import org.tron.api.GrpcAPI;
+import org.tron.api.GrpcAPI.Return.response_code;
 import org.tron.common.crypto.ECKey;
+import org.tron.common.crypto.KeyDerivation;
+import org.tron.common.crypto.KeyTable;
 import org.tron.common.utils.*;
 import org.tron.protos.Contract;
 import org.tron.protos.Protocol.Transaction;
+import org.tron.service.BroadcastEngine;
 import org.tron.service.WalletClient;
 import org.tron.protos.Protocol;
+import org.tron.stress.AccountPool;
+import org.tron.stress.AccountProvisioner;
+import org.tron.stress.PairScheduler;
+import org.tron.stress.metrics.BroadcastMetrics;
+import org.tron.stress.metrics.Counter;
+import org.tron.stress.metrics.MetricsMBean;
+import org.tron.stress.metrics.MetricsRegistry;
+import org.tron.stress.metrics.ResponseCounter;
 
 
 
-//Example --tps 10000 --amount 1 --privatekeyFile privatekey.csv --count 1000000 --output trxsdata.csv
+//Example --tps 10000 --amount 1 --privatekeyFile privatekey.csv --count 1000000 --output trxsdata.csv [--pool accounts.csv | --seed [passphrase] --first 0]
 public class SendCoinLoopWithValidation {
     private static final int THREAD_COUNT = 16;
+    // sendCoinAmount >= Transaction * amount + freezeTRX
+    private static final long BALANCE = 1090L * 1000000L;
+    // freezeTRXPerAccount >= sqrt(count * THREAD_COUNT) / 30 trx, so 500 trx covers all case
+    private static final long FROZEN_BALANCE = 500L * 1000000L;
+    private static final long FROZEN_DAYS = 3;
 
     private static List<WalletClient> walletClients = new ArrayList<>();
 
@@ -45,14 +62,6 @@ public class SendCoinLoopWithValidation {
         double tps = args1.getTps();
         long count = args1.getCount();
 
-        // init ECKeys for new accounts
-        List<ECKey> keys = new ArrayList<>();
-        for(int i=0;i<Math.sqrt(count/THREAD_COUNT);i++){
-            ECKey key =  new ECKey(Utils.getRandom());
-            System.err.println("init account: " + Base58.encode58Check(key.getAddress()));
-            keys.add(key);
-        }
-
         // 读取 private key
         List<String> privateKeyList = getStrings(args1.getPrivateKeyFile());
         int privateKeySize = privateKeyList.size();
@@ -67,96 +76,80 @@ public class SendCoinLoopWithValidation {
             return walletClient;
         }).collect(Collectors.toList());
 
-//        walletClients = IntStream.range(0, THREAD_COUNT).forEach(i );
-
         WalletClient rootClient = new WalletClient(privateKeyList.get(0));
-//        rootClient.init();
-
-        int accountNum = (int)Math.sqrt(count/THREAD_COUNT) + 1;
-
-        // increase bandwidth
-        boolean freze = rootClient.freezeBalance((long)accountNum * (long)1000 * (long)1000000,3);
-        if (!freze) {
-            throw new RuntimeException();
-        }
-
-        // send every account 1000 TRX to create the account on the chain (at least 1 TRX)
-        keys.forEach(key->{
-            boolean b= false;
-            GrpcAPI.Return response;
-            int loop = 0;
-            do {
-                if(loop!=0){
 
-                    try{
-                        Thread.sleep(1000);
-                    } catch (InterruptedException e){
-
-                    }
-                }
-                response= rootClient.sendCoinResponse(key.getAddress(), (long) 1000 * (long) 1000000);
-                b = response.getResult();
-                loop++;
-                if(b==false){
-                    System.err.println("failed to create "+ Base58.encode58Check(key.getAddress()) + " "+loop);
+        // reuse the accounts of a previous run, they are already funded and frozen
+        int accountNum = (int) Math.sqrt(count / THREAD_COUNT);
+        File poolFile = new File(args1.getPool());
+        List<ECKey> keys;
+        // accounts still to fund and freeze
+        List<ECKey> missing;
+        // accounts funded by a previous run that stopped before freezing them
+        List<ECKey> unfrozen = new ArrayList<>();
+        if (args1.getSeed() != null) {
+            // the same seed and range give the same accounts on every box, no pool file;
+            // a previous run may have stopped halfway, so every account is checked
+            List<ECKey> derived = KeyDerivation.fromPassphrase(args1.getSeed())
+                    .keys(args1.getFirst(), accountNum);
+            Protocol.Account[] accounts = new Protocol.Account[derived.size()];
+            IntStream.range(0, derived.size()).parallel().forEach(i ->
+                    accounts[i] = WalletClient.queryAccount(derived.get(i).getAddress()));
+            keys = new ArrayList<>();
+            missing = new ArrayList<>();
+            for (int i = 0; i < derived.size(); i++) {
+                if (accounts[i].getFrozenCount() > 0 && accounts[i].getBalance() > 0) {
+                    keys.add(derived.get(i));
+                } else if (accounts[i].getFrozenCount() == 0
+                        && accounts[i].getBalance() > FROZEN_BALANCE) {
+                    // freezing is all it lacks, funding it again would send another 1090 TRX
+                    unfrozen.add(derived.get(i));
+                } else {
+                    missing.add(derived.get(i));
                 }
-            }while(b == false && loop < 20);
-            if(b==false){
-                System.err.println("failed to create "+ Base58.encode58Check(key.getAddress()));
             }
+            System.err.println("derived accounts " + args1.getFirst() + " to "
+                    + (args1.getFirst() + accountNum - 1) + ", " + keys.size() + " ready, "
+                    + unfrozen.size() + " to freeze");
+        } else if (poolFile.exists()) {
+            keys = new ArrayList<>(AccountPool.load(poolFile).getKeys());
+            missing = new ArrayList<>();
+            System.err.println("loaded " + keys.size() + " accounts from " + poolFile);
+        } else {
+            keys = new ArrayList<>();
+            missing = AccountProvisioner.newKeys(accountNum);
+        }
 
-            // sendCoinAmount >= Transaction * amount + freezeTRX
-            rootClient.sendCoin(key.getAddress(), (long) 100 * (long) 1000000 - (long) 10 * (long) 1000000);
-        });
-
-
-        // wait all the new accounts to be set up
-        Thread.sleep(3000);
-
-        List<ECKey> failedKey = new ArrayList<>();
-        keys.forEach(key->{
-            WalletClient walletClient = new WalletClient(key);
-
-            // need to freeze at least (freezeTRX) : (accountNum-1) * accountNum * 0.1 / 3 TRX
-            // TransactionNum = (accountNum - 1)* accountNum
-            // requiredBandwidth = TransactionNum * 0.1
-            // freezeTRXPerAccount = (requiredBandwidth / 3)   TRX
+        if (!missing.isEmpty() || !unfrozen.isEmpty()) {
+            BroadcastEngine engine = new BroadcastEngine(WalletClient.getChannelPool(), 256);
+            AccountProvisioner provisioner = new AccountProvisioner(engine, WalletClient.init(),
+                    args1.getFanout(), Runtime.getRuntime().availableProcessors());
 
-            // freezeTRXPerAccount >= sqrt(count * THREAD_COUNT) / 30    trx
-            // so 200*1000000 can support all case
-            GrpcAPI.Return freezeResult = walletClient.freezeBalanceResponse(500*1000000,3);
-            int loop = 0;
-            while(!freezeResult.getResult()&&loop<2){
-                loop++;
-                try {
-                    Thread.sleep(1000);
-                }
-                catch(InterruptedException e){
-
-                }
-                freezeResult = walletClient.freezeBalanceResponse(500*1000000,3);
+            if (!unfrozen.isEmpty()) {
+                AccountPool frozen = provisioner.freeze(unfrozen, FROZEN_BALANCE, FROZEN_DAYS);
+                keys.addAll(frozen.getKeys());
+                System.err.println("froze " + frozen.getKeys().size() + " of "
+                        + unfrozen.size() + " funded accounts");
             }
-            if(freezeResult.getResult()==false){
-                failedKey.add(key);
-                System.err.println("freeze failed "+Base58.encode58Check(key.getAddress()) +" "+freezeResult.getMessage());
+            AccountPool pool = provisioner.provision(rootClient.getEcKey(), missing,
+                    BALANCE, FROZEN_BALANCE, FROZEN_DAYS);
+            provisioner.shutdown();
+            // only the accounts funded and frozen are used, the others would only fail
+            keys.addAll(pool.getKeys());
+            if (args1.getSeed() == null) {
+                pool.save(poolFile);
+                System.err.println("provisioned " + pool.getKeys().size() + " of "
+                        + missing.size() + " accounts, saved to " + poolFile);
+            } else {
+                System.err.println("provisioned " + pool.getKeys().size() + " of "
+                        + missing.size() + " accounts");
             }
-            else{
-                System.err.println("freeze success "+Base58.encode58Check(key.getAddress()));
-            }
-        });
-
-        failedKey.forEach(key->{
-            if(keys.indexOf(key)!=-1){
-                keys.remove(key);
-            }
-        });
+        }
 
         long amount = args1.getAmount();
 
         File f = new File(args1.getOutput());
         FileOutputStream fos = new FileOutputStream(f);
 
-        Thread.sleep(10000);
         AtomicInteger counter = new AtomicInteger(0);
 
         long sum1 =0;
@@ -187,10 +180,20 @@ public class SendCoinLoopWithValidation {
                 .listeningDecorator(Executors.newFixedThreadPool(THREAD_COUNT));
         CountDownLatch latch = new CountDownLatch(THREAD_COUNT);
         RateLimiter limiter = RateLimiter.create(tps);
+        TransactionBuilder builder = new TransactionBuilder(WalletClient.getBlockReference(),
+                TransactionBuilder.DEFAULT_EXPIRATION);
+        PairScheduler pairs = new PairScheduler(keys.size());
+        KeyTable table = KeyTable.of(keys);
+        System.err.println("transactions to send: " + pairs.getPairCount());
+        try {
+            MetricsMBean.register(MetricsRegistry.getDefault());
+        } catch (JMException e) {
+            System.out.println("metrics not registered over JMX: " + e);
+        }
 
         for (int i = 0; i < THREAD_COUNT; ++i) {
             executorService.execute(new TaskWithVal(walletClients.get(i % THREAD_COUNT), limiter, THREAD_COUNT,
-                    keys,amount,count,  fos, counter, latch));
+                    table,amount,count,  fos, counter, latch, builder, pairs));
         }
 
         try {
@@ -219,7 +222,12 @@ class TaskWithVal implements Runnable {
     private static LongAdder trueCount = new LongAdder();
     private static LongAdder falseCount = new LongAdder();
     private static LongAdder currentCount = new LongAdder();
-    private static ConcurrentHashMap<Long, LongAdder> resultMap = new ConcurrentHashMap<>();
+    private static ResponseCounter responses = new ResponseCounter();
+    private static final Counter offered = MetricsRegistry.getDefault()
+            .counter("transactions_offered_total");
+    // every transaction is a transfer, the codes are the same series as SendCoinLoop's
+    private static final Counter[] responseCounters =
+            new Counter[response_code.values().length + 1];
     public static final ScheduledExecutorService service = Executors
             .newSingleThreadScheduledExecutor();
     private WalletClient walletClient;
@@ -228,21 +236,29 @@ class TaskWithVal implements Runnable {
     private static int threadCount;
     private AtomicInteger counter;
 
-    private List<ECKey> keys;
+    private KeyTable keys;
     private long amount;
     private long count;
     private CountDownLatch latch;
     private FileOutputStream fos;
+    private TransactionBuilder builder;
+    private PairScheduler pairs;
     public static long sum ;
 
     static {
+        response_code[] codes = response_code.values();
+        for (int i = 0; i <= codes.length; i++) {
+            responseCounters[i] = MetricsRegistry.getDefault().counter(BroadcastMetrics.RESPONSES,
+                    "contract", "TransferContract",
+                    "code", i == codes.length ? "RPC_FAILURE" : codes[i].name());
+        }
         service.scheduleAtFixedRate(() -> {
             System.out.println(
                     "current: " + currentCount.longValue()
                             + ", true: " + trueCount.longValue()
                             + ", false: " + falseCount.longValue()
-                            + ", timestamp: " + (System.currentTimeMillis() / 1000)
-                            + ", map: " + resultMap);
+                            + ", timestamp: " + (System.currentTimeMillis() / 1000));
+            System.out.println("responses: " + responses.nextInterval());
 
             if (endCounts.longValue() == threadCount) {
                 service.shutdown();
@@ -251,8 +267,9 @@ class TaskWithVal implements Runnable {
     }
 
     public TaskWithVal(final WalletClient walletClient, RateLimiter limiter,
-                 int threadCount,List<ECKey> keys,
-                       long amount, long count,  FileOutputStream fos, AtomicInteger counter, CountDownLatch latch) {
+                 int threadCount,KeyTable keys,
+                       long amount, long count,  FileOutputStream fos, AtomicInteger counter, CountDownLatch latch,
+                       TransactionBuilder builder, PairScheduler pairs) {
         this.walletClient = walletClient;
         this.limiter = limiter;
         this.threadCount = threadCount;
@@ -263,25 +280,20 @@ class TaskWithVal implements Runnable {
         this.counter = counter;
         this.sum =0;
         this.latch = latch;
+        this.builder = builder;
+        this.pairs = pairs;
     }
 
     @Override
     public void run() {
-        //Math.sqrt(count / threadCount) + 1
-        List<WalletClient> wallets = new ArrayList<>();
-        for (ECKey k:keys) {
-            wallets.add(new WalletClient(k));
-        }
-
-        for(int i = 0; i< keys.size(); i++){
-            for(int j = 0; j< keys.size(); j++){
-                if(i == j){
-                    continue;
-                }
+        // every sender is claimed by a single task, which sends all of its transfers
+        KeyTable.Signer signer = keys.newSigner();
+        for (int i = pairs.nextSender(); i >= 0; i = pairs.nextSender()) {
+            for (int r = 0; r < pairs.getReceiverCount(); r++) {
+                int j = pairs.receiver(i, r);
                 int c = counter.incrementAndGet();
                 Contract.TransferContract contract = WalletClient
-                    .createTransferContract(keys.get(j).getAddress(), keys.get(i).getAddress() , amount);
-                walletClient =  wallets.get(i);
+                    .createTransferContract(keys.getAddress(j), keys.getAddress(i) , amount);
 
 //                GrpcAPI.Return freezeResult = walletClient.freezeBalances(10000,3);
 //                if(freezeResult.getResult()==false){
@@ -297,10 +309,12 @@ class TaskWithVal implements Runnable {
 //                System.err.println("\nBefore transaction: " + account.getBalance());
 
 
-                Transaction transaction = walletClient.createTransaction4Transfer(contract);
-                transaction = walletClient.signTransaction(transaction);
+                Transaction transaction = builder.createTransaction(contract);
+                transaction = signer.sign(i, TransactionUtils.setTimestamp(transaction));
                 try{
-                    transaction.writeDelimitedTo(fos);
+                    synchronized (fos) {
+                        transaction.writeDelimitedTo(fos);
+                    }
                 }catch (IOException e){
                     e.printStackTrace();
                 }
@@ -309,25 +323,26 @@ class TaskWithVal implements Runnable {
                     System.out.println("create transaction current: " + (c + 1));
                 }
                 limiter.acquire();
-                GrpcAPI.Return response= walletClient.broadcastTransaction(transaction);
-                boolean b = response.getResult();
-                if (b) {
+                offered.increment();
+                GrpcAPI.Return response;
+                try {
+                    response = WalletClient.broadcastTransaction(transaction);
+                } catch (RuntimeException e) {
+                    responses.recordFailure(e);
+                    responseCounters[responseCounters.length - 1].increment();
+                    falseCount.increment();
+                    currentCount.increment();
+                    continue;
+                }
+                // counted per code, error messages are sampled by the reporter
+                responses.record(response);
+                responseCounters[response.getCode().ordinal()].increment();
+                if (response.getResult()) {
                     trueCount.increment();
-                    //System.err.println("Success from:" + Base58.encode58Check(keys.get(i).getAddress()) + " to:" + Base58.encode58Check(keys.get(j).getAddress()));
                 } else {
                     falseCount.increment();
-                    if(response.getMessage().size()==0){
-                        System.err.println(response.toString().replace("\n",""));
-                    }
-                    else {
-                        System.err.println(response.getMessage().toStringUtf8()+" from:"+ Base58.encode58Check(keys.get(i).getAddress()) + " to:" + Base58.encode58Check(keys.get(j).getAddress()));
-                    }
                 }
                 currentCount.increment();
-
-                long currentMinutes = System.currentTimeMillis() / 1000L / 60;
-
-                resultMap.computeIfAbsent(currentMinutes, k -> new LongAdder()).increment();
             }
         }
         this.endCounts.increment();
@@ -365,4 +380,24 @@ class SendCoinArgsWithVal {
             "--output"}, description = "Save data file", required = true, validateWith = StringValidator.class)
     private String output;
 
+    @Getter
+    @Parameter(names = {
+            "--pool"}, description = "Account pool file, provisioned and saved if missing")
+    private String pool = "accounts.csv";
+
+    @Getter
+    @Parameter(names = {
+            "--fanout"}, description = "Accounts funded by every account while provisioning")
+    private int fanout = 10;
+
+    @Getter
+    @Parameter(names = {
+            "--seed"}, description = "Passphrase the accounts are derived from, instead of a pool file", validateWith = StringValidator.class)
+    private String seed;
+
+    @Getter
+    @Parameter(names = {
+            "--first"}, description = "Index of the first derived account, boxes sharing a seed take disjoint ranges")
+    private long first = 0;
+
 }
\ No newline at end of file
@@ -2,43 +2,183 @@ package org.tron.program;
 
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
+import com.google.protobuf.InvalidProtocolBufferException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.HashMap;
+import java.nio.ByteBuffer;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.LongStream;
 import lombok.Getter;
 import org.tron.Validator.StringValidator;
+import org.tron.common.corpus.CorpusReader;
+import org.tron.common.crypto.Hash;
+import org.tron.common.utils.BlockedBloomFilter;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.OffHeapHashTable;
 import org.tron.common.utils.Sha256Hash;
+import org.tron.common.utils.TransactionUtils;
 import org.tron.protos.Protocol.Transaction;
 
-//Example --datafile [path to trxsdata.csv]
+//Example --datafile [path to trxsdata.csv] [--bloom]
 public class ShowData {
 
-  private static Map<Sha256Hash, LongAdder> transactionsMap = new HashMap<>();
+  /**
+   * Transactions of a corpus hashed by one task.
+   */
+  private static final int CHUNK_SIZE = 1 << 16;
+  private static final int BLOOM_BITS_PER_KEY = 16;
+  private static final int ADDRESS_LENGTH = 21;
+
+  private static LongAdder total = new LongAdder();
+  private static Map<Long, LongAdder> minutesMap = new ConcurrentHashMap<>();
+  private static LongAccumulator minTimestamp = new LongAccumulator(Math::min, Long.MAX_VALUE);
+  private static LongAccumulator maxTimestamp = new LongAccumulator(Math::max, Long.MIN_VALUE);
+  private static OffHeapHashTable senders;
 
   public static void main(String[] args) throws IOException {
     ShowDataArgs args1 = new ShowDataArgs();
     JCommander.newBuilder().addObject(args1).build().parse(args);
 
     File f = new File(args1.getDataFile());
-    FileInputStream fis = new FileInputStream(f);
+    CorpusReader corpus = CorpusReader.isCorpus(f) ? new CorpusReader(f) : null;
+    // the old format has no count, guess it from the size of a transfer
+    long expected = corpus != null ? corpus.size() : f.length() / 150;
+    senders = new OffHeapHashTable(ADDRESS_LENGTH, Math.max(1024, expected / 100));
+
+    OffHeapHashTable counts;
+    if (args1.isBloom()) {
+      // pass 1 keeps only the txids the filter may have seen, pass 2 counts them exactly
+      BlockedBloomFilter filter = new BlockedBloomFilter(Math.max(1024, expected),
+          BLOOM_BITS_PER_KEY);
+      OffHeapHashTable candidates = new OffHeapHashTable(Sha256Hash.LENGTH,
+          Math.max(1024, expected / 100));
+      forEach(f, corpus, (txid, raw) -> {
+        if (filter.put(txid, 0)) {
+          candidates.putIfAbsent(txid, 0, 0);
+        }
+        stat(raw);
+      });
+      forEach(f, corpus, (txid, raw) -> {
+        if (candidates.get(txid, 0, -1) >= 0) {
+          candidates.addTo(txid, 0, 1);
+        }
+      });
+      System.out.println("bloom filter bytes: " + filter.memoryUsage());
+      counts = candidates;
+    } else {
+      counts = new OffHeapHashTable(Sha256Hash.LENGTH, Math.max(1024, expected));
+      OffHeapHashTable all = counts;
+      forEach(f, corpus, (txid, raw) -> {
+        all.addTo(txid, 0, 1);
+        stat(raw);
+      });
+    }
+
+    LongAdder duplicated = new LongAdder();
+    LongAdder copies = new LongAdder();
+    counts.forEach((txid, count) -> {
+      if (count > 1) {
+        System.out.println(ByteArray.toHexString(txid) + ":" + count);
+        duplicated.increment();
+        copies.add(count - 1);
+      }
+    });
+
+    System.out.println("transactions: " + total.sum()
+        + ", duplicated txids: " + duplicated.sum()
+        + ", extra copies: " + copies.sum()
+        + ", hash table bytes: " + counts.memoryUsage());
+    System.out.println("map size:" + (total.sum() - copies.sum()));
+
+    if (total.sum() == 0) {
+      return;
+    }
+    System.out.println("timestamp min: " + minTimestamp.get() + ", max: " + maxTimestamp.get());
+    new TreeMap<>(minutesMap).forEach((minute, count) ->
+        System.out.println("minute " + minute + ": " + count));
+
+    LongAccumulator minPerSender = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    LongAccumulator maxPerSender = new LongAccumulator(Math::max, 0);
+    senders.forEach((owner, count) -> {
+      minPerSender.accumulate(count);
+      maxPerSender.accumulate(count);
+    });
+    if (senders.size() > 0) {
+      System.out.println("senders: " + senders.size()
+          + ", transactions per sender min: " + minPerSender.get()
+          + ", avg: " + total.sum() / senders.size()
+          + ", max: " + maxPerSender.get());
+    }
+  }
 
-    Transaction transaction;
-    while ((transaction = Transaction.parseDelimitedFrom(fis)) != null) {
-      Sha256Hash key = Sha256Hash.of(transaction.getRawData().toByteArray());
-      transactionsMap.computeIfAbsent(key, k -> new LongAdder())
-          .increment();
+  private interface RawDataConsumer {
+
+    /**
+     * @param txid reused between calls of the same thread
+     * @param raw serialized raw_data of the transaction
+     */
+    void accept(byte[] txid, ByteBuffer raw);
+  }
+
+  private static void forEach(File f, CorpusReader corpus, RawDataConsumer consumer)
+      throws IOException {
+    if (corpus == null) {
+      byte[] txid = new byte[Sha256Hash.LENGTH];
+      try (FileInputStream fis = new FileInputStream(f)) {
+        Transaction transaction;
+        while ((transaction = Transaction.parseDelimitedFrom(fis)) != null) {
+          ByteBuffer raw = ByteBuffer.wrap(transaction.getRawData().toByteArray());
+          Hash.sha256(raw, txid, 0);
+          consumer.accept(txid, raw);
+        }
+      }
+      return;
     }
 
-    transactionsMap.entrySet().stream().filter(t ->
-      t.getValue().longValue() > 1
-    ).forEach( t -> {
-        System.out.println(t.getKey() + ":" + t.getValue());
+    // the raw_data bytes are hashed straight from the mapping, stat only parses the contracts
+    long chunks = (corpus.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    LongStream.range(0, chunks).parallel().forEach(chunk -> {
+      byte[] txid = new byte[Sha256Hash.LENGTH];
+      long end = Math.min(corpus.size(), (chunk + 1) * CHUNK_SIZE);
+      for (long i = chunk * CHUNK_SIZE; i < end; i++) {
+        ByteBuffer raw = TransactionUtils.getRawDataSlice(corpus.slice(i));
+        Hash.sha256(raw, txid, 0);
+        consumer.accept(txid, raw);
+      }
     });
+  }
+
+  /**
+   * TRON has no account nonce, the spread of a sender is its number of transactions.
+   */
+  private static void stat(ByteBuffer raw) {
+    total.increment();
+    long timestamp = TransactionUtils.getTimestamp(raw);
+    minTimestamp.accumulate(timestamp);
+    maxTimestamp.accumulate(timestamp);
+    // setTimestamp stamps millis * 1000000 + nanos, transactions of the node carry millis
+    long millis = timestamp > 100_000_000_000_000L ? timestamp / 1000000 : timestamp;
+    minutesMap.computeIfAbsent(millis / 60_000, k -> new LongAdder()).increment();
 
-    System.out.println("map size:" + transactionsMap.size());
+    // the owner sits at a different field in every contract type, only the contract is parsed
+    ByteBuffer contract = TransactionUtils.getContractSlice(raw);
+    if (contract == null) {
+      return;
+    }
+    byte[] owner;
+    try {
+      owner = TransactionUtils.getOwner(Transaction.Contract.parseFrom(contract));
+    } catch (InvalidProtocolBufferException e) {
+      return;
+    }
+    if (owner != null && owner.length == ADDRESS_LENGTH) {
+      senders.addTo(owner, 0, 1);
+    }
   }
 }
 
@@ -48,4 +188,9 @@ class ShowDataArgs {
   @Parameter(names = {
       "--datafile"}, description = "Data file", required = true, validateWith = StringValidator.class)
   private String dataFile;
-}
\ No newline at end of file
+
+  @Getter
+  @Parameter(names = {
+      "--bloom"}, description = "Prefilter with a Bloom filter: two passes, far less memory")
+  private boolean bloom = false;
+}
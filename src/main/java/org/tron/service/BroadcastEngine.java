@@ -0,0 +1,182 @@
+package org.tron.service;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import org.tron.api.GrpcAPI.Return;
+import org.tron.common.utils.TransactionUtils;
+import org.tron.protos.Protocol.Transaction;
+import org.tron.service.ChannelPool.Node;
+import org.tron.service.ChannelPool.PooledChannel;
+import org.tron.stress.metrics.BroadcastMetrics;
+
+/**
+ * Pipelined broadcaster on top of the gRPC future stubs.
+ *
+ * <p>Every channel of the pool owns a window of outstanding requests. {@link #broadcast} blocks
+ * only while the window of the selected channel is full, so a handful of sender threads can keep
+ * thousands of requests in flight. Results are delivered to the caller's callback on the gRPC
+ * executor.
+ */
+public class BroadcastEngine {
+
+  private final ChannelPool pool;
+  private final List<Semaphore> windows = new ArrayList<>();
+  private final int maxOutstanding;
+  private volatile BroadcastMetrics metrics;
+
+  /**
+   * Result of one broadcast with the node that answered it, for the callers that record more
+   * than the result.
+   */
+  public interface Callback {
+
+    /**
+     * @param sentNanos {@link System#nanoTime()} when the request got a window slot and went to
+     * gRPC
+     */
+    void onSuccess(Node node, Return result, long sentNanos);
+
+    void onFailure(Node node, Throwable t, long sentNanos);
+  }
+
+  /**
+   * @param pool channels to spread the requests on
+   * @param maxOutstanding max in flight requests per channel
+   */
+  public BroadcastEngine(ChannelPool pool, int maxOutstanding) {
+    this.pool = pool;
+    this.maxOutstanding = maxOutstanding;
+    for (int i = 0; i < pool.size(); i++) {
+      windows.add(new Semaphore(maxOutstanding));
+    }
+  }
+
+  /**
+   * Records every result by node, contract type and code from now on.
+   */
+  public void setMetrics(BroadcastMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  public ChannelPool getPool() {
+    return pool;
+  }
+
+  public void broadcast(Transaction transaction, FutureCallback<Return> callback) {
+    broadcast(null, transaction, callback);
+  }
+
+  /**
+   * @param key routing key for {@link ChannelPool.Strategy#KEY}, usually the owner address
+   */
+  public void broadcast(byte[] key, Transaction transaction, FutureCallback<Return> callback) {
+    int contractType = metrics == null || transaction.getRawData().getContractCount() == 0 ? -1
+        : transaction.getRawData().getContract(0).getTypeValue();
+    send(key, contractType, client -> client.broadcastTransactionAsync(transaction),
+        adapt(callback));
+  }
+
+  /**
+   * Same as {@link #broadcast(byte[], Transaction, FutureCallback)} for a transaction that is
+   * already serialized, the bytes go to the wire without being parsed.
+   */
+  public void broadcast(byte[] key, ByteBuffer transaction, FutureCallback<Return> callback) {
+    broadcast(key, transaction, adapt(callback));
+  }
+
+  /**
+   * Same as {@link #broadcast(byte[], ByteBuffer, FutureCallback)}, the callback also learns the
+   * node that answered and when the request was actually sent.
+   */
+  public void broadcast(byte[] key, ByteBuffer transaction, Callback callback) {
+    int contractType = metrics == null ? -1 : TransactionUtils.getContractType(transaction);
+    send(key, contractType, client -> client.broadcastTransactionAsync(transaction), callback);
+  }
+
+  private static Callback adapt(FutureCallback<Return> callback) {
+    return new Callback() {
+      @Override
+      public void onSuccess(Node node, Return result, long sentNanos) {
+        callback.onSuccess(result);
+      }
+
+      @Override
+      public void onFailure(Node node, Throwable t, long sentNanos) {
+        callback.onFailure(t);
+      }
+    };
+  }
+
+  private void send(byte[] key, int contractType,
+      Function<GrpcClient, ListenableFuture<Return>> call, Callback callback) {
+    PooledChannel channel = pool.select(key);
+    long start = System.nanoTime();
+    Semaphore window = windows.get(channel.getIndex());
+    window.acquireUninterruptibly();
+    channel.onSend();
+    long sent = System.nanoTime();
+
+    ListenableFuture<Return> future;
+    try {
+      future = call.apply(channel.getClient());
+    } catch (RuntimeException e) {
+      channel.onResponse(false);
+      window.release();
+      if (metrics != null) {
+        metrics.recordFailure(channel.getNode(), contractType, System.nanoTime() - start);
+      }
+      callback.onFailure(channel.getNode(), e, sent);
+      return;
+    }
+
+    Futures.addCallback(future, new FutureCallback<Return>() {
+      @Override
+      public void onSuccess(Return result) {
+        channel.onResponse(result.getResult());
+        window.release();
+        if (metrics != null) {
+          metrics.record(channel.getNode(), contractType, result, System.nanoTime() - start);
+        }
+        callback.onSuccess(channel.getNode(), result, sent);
+      }
+
+      @Override
+      public void onFailure(Throwable t) {
+        channel.onResponse(false);
+        window.release();
+        if (metrics != null) {
+          metrics.recordFailure(channel.getNode(), contractType, System.nanoTime() - start);
+        }
+        callback.onFailure(channel.getNode(), t, sent);
+      }
+    }, MoreExecutors.directExecutor());
+  }
+
+  /**
+   * @return requests sent but not yet answered, over all channels
+   */
+  public int getOutstanding() {
+    int outstanding = 0;
+    for (Semaphore window : windows) {
+      outstanding += maxOutstanding - window.availablePermits();
+    }
+    return outstanding;
+  }
+
+  /**
+   * Blocks until every request handed to {@link #broadcast} has been answered.
+   */
+  public void awaitCompletion() throws InterruptedException {
+    for (Semaphore window : windows) {
+      window.acquire(maxOutstanding);
+      window.release(maxOutstanding);
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package org.tron.service;
+
+import com.google.common.io.ByteStreams;
+import io.grpc.Drainable;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor.Marshaller;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Marshaller for messages that are already serialized: the remaining bytes of the buffer go to
+ * the transport as they are, no protobuf object is parsed or built.
+ *
+ * <p>The stream is drained by gRPC straight into its own transport buffers, heap buffers in a
+ * single write, mapped ones through a small per-thread scratch.
+ */
+class ByteBufferMarshaller implements Marshaller<ByteBuffer> {
+
+  private static final int SCRATCH_SIZE = 4096;
+  private static final ThreadLocal<byte[]> scratch = ThreadLocal
+      .withInitial(() -> new byte[SCRATCH_SIZE]);
+
+  @Override
+  public InputStream stream(ByteBuffer value) {
+    return new BufferStream(value.duplicate());
+  }
+
+  @Override
+  public ByteBuffer parse(InputStream stream) {
+    try {
+      return ByteBuffer.wrap(ByteStreams.toByteArray(stream));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static class BufferStream extends InputStream implements KnownLength, Drainable {
+
+    private final ByteBuffer buffer;
+
+    BufferStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int n = Math.min(len, buffer.remaining());
+      buffer.get(b, off, n);
+      return n;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+
+    @Override
+    public int drainTo(OutputStream target) throws IOException {
+      int length = buffer.remaining();
+      if (buffer.hasArray()) {
+        target.write(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+        buffer.position(buffer.limit());
+        return length;
+      }
+      byte[] chunk = scratch.get();
+      while (buffer.hasRemaining()) {
+        int n = Math.min(chunk.length, buffer.remaining());
+        buffer.get(chunk, 0, n);
+        target.write(chunk, 0, n);
+      }
+      return length;
+    }
+  }
+}
@@ -0,0 +1,235 @@
+package org.tron.service;
+
+import com.typesafe.config.Config;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opens several channels to every configured full node and spreads requests over them.
+ *
+ * <p>Every channel is its own HTTP/2 connection, so the load is not capped by one TCP connection
+ * and one event loop. Counters are kept per node to see how the load was actually distributed.
+ */
+public class ChannelPool {
+
+  public enum Strategy {
+    /**
+     * Every channel in turn.
+     */
+    ROUND_ROBIN,
+    /**
+     * The channel with the fewest requests waiting for an answer.
+     */
+    LEAST_OUTSTANDING,
+    /**
+     * A key, usually the sender address, always goes to the same node.
+     */
+    KEY
+  }
+
+  private final List<Node> nodes = new ArrayList<>();
+  private final List<PooledChannel> channels = new ArrayList<>();
+  private final Strategy strategy;
+  private final AtomicLong next = new AtomicLong();
+
+  /**
+   * Reads {@code fullnode.ip.list}, {@code fullnode.channels} and {@code fullnode.balance}.
+   */
+  public static ChannelPool fromConfig(Config config) {
+    List<String> targets = config.getStringList("fullnode.ip.list");
+    int channelsPerNode = config.hasPath("fullnode.channels")
+        ? config.getInt("fullnode.channels") : 1;
+    Strategy strategy = config.hasPath("fullnode.balance")
+        ? Strategy.valueOf(config.getString("fullnode.balance").toUpperCase())
+        : Strategy.ROUND_ROBIN;
+    return new ChannelPool(targets, channelsPerNode, strategy);
+  }
+
+  public ChannelPool(List<String> targets, int channelsPerNode, Strategy strategy) {
+    if (targets.isEmpty() || channelsPerNode <= 0) {
+      throw new IllegalArgumentException("At least one full node channel is required");
+    }
+    this.strategy = strategy;
+    for (String target : targets) {
+      Node node = new Node(nodes.size(), target);
+      nodes.add(node);
+      for (int i = 0; i < channelsPerNode; i++) {
+        PooledChannel channel = new PooledChannel(channels.size(), node,
+            new GrpcClient(target, null));
+        node.channels.add(channel);
+        channels.add(channel);
+      }
+    }
+  }
+
+  public Strategy getStrategy() {
+    return strategy;
+  }
+
+  public int size() {
+    return channels.size();
+  }
+
+  public List<PooledChannel> getChannels() {
+    return Collections.unmodifiableList(channels);
+  }
+
+  public PooledChannel select() {
+    return select(null);
+  }
+
+  /**
+   * @param key only used by {@link Strategy#KEY}, may be null
+   */
+  public PooledChannel select(byte[] key) {
+    switch (strategy) {
+      case LEAST_OUTSTANDING:
+        return leastOutstanding();
+      case KEY:
+        if (key != null) {
+          Node node = nodes.get(Math.floorMod(Arrays.hashCode(key), nodes.size()));
+          return node.channels.get((int) (next.getAndIncrement() % node.channels.size()));
+        }
+        return roundRobin();
+      default:
+        return roundRobin();
+    }
+  }
+
+  private PooledChannel roundRobin() {
+    return channels.get((int) (next.getAndIncrement() % channels.size()));
+  }
+
+  private PooledChannel leastOutstanding() {
+    // start from a rotating offset so that ties do not always land on the first channel
+    int start = (int) (next.getAndIncrement() % channels.size());
+    PooledChannel best = null;
+    for (int i = 0; i < channels.size(); i++) {
+      PooledChannel channel = channels.get((start + i) % channels.size());
+      if (best == null || channel.getOutstanding() < best.getOutstanding()) {
+        best = channel;
+      }
+    }
+    return best;
+  }
+
+  public List<Node> getNodes() {
+    return Collections.unmodifiableList(nodes);
+  }
+
+  public void shutdown() {
+    for (PooledChannel channel : channels) {
+      try {
+        channel.client.shutdown();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * One full node and its counters.
+   */
+  public static class Node {
+
+    private final int id;
+    private final String target;
+    private final List<PooledChannel> channels = new ArrayList<>();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder success = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    Node(int id, String target) {
+      this.id = id;
+      this.target = target;
+    }
+
+    public int getId() {
+      return id;
+    }
+
+    public String getTarget() {
+      return target;
+    }
+
+    public long getSent() {
+      return sent.sum();
+    }
+
+    public long getSuccess() {
+      return success.sum();
+    }
+
+    public long getFailed() {
+      return failed.sum();
+    }
+
+    public int getOutstanding() {
+      int outstanding = 0;
+      for (PooledChannel channel : channels) {
+        outstanding += channel.getOutstanding();
+      }
+      return outstanding;
+    }
+
+    @Override
+    public String toString() {
+      return target + " sent: " + getSent() + ", true: " + getSuccess() + ", false: "
+          + getFailed() + ", outstanding: " + getOutstanding();
+    }
+  }
+
+  /**
+   * A channel of the pool. Callers report every request with {@link #onSend()} and its answer
+   * with {@link #onResponse(boolean)}.
+   */
+  public static class PooledChannel {
+
+    private final int index;
+    private final Node node;
+    private final GrpcClient client;
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    PooledChannel(int index, Node node, GrpcClient client) {
+      this.index = index;
+      this.node = node;
+      this.client = client;
+    }
+
+    public int getIndex() {
+      return index;
+    }
+
+    public Node getNode() {
+      return node;
+    }
+
+    public GrpcClient getClient() {
+      return client;
+    }
+
+    public int getOutstanding() {
+      return outstanding.get();
+    }
+
+    public void onSend() {
+      outstanding.incrementAndGet();
+      node.sent.increment();
+    }
+
+    public void onResponse(boolean result) {
+      outstanding.decrementAndGet();
+      if (result) {
+        node.success.increment();
+      } else {
+        node.failed.increment();
+      }
+    }
+  }
+}
@@ -0,0 +1,228 @@
+package org.tron.service;
+
+import com.typesafe.config.Config;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tron.api.GrpcAPI.BlockList;
+import org.tron.common.crypto.Hash;
+import org.tron.common.utils.OffHeapHashTable;
+import org.tron.protos.Protocol.Block;
+import org.tron.protos.Protocol.Transaction;
+import org.tron.stress.metrics.LatencyRecorder;
+
+/**
+ * Follows the chain to tell which broadcast transactions really made it into a block.
+ *
+ * <p>Broadcast txids are kept off heap with their broadcast time. A poller walks every new block
+ * of the full node and, when a solidity node is configured, waits for the block to be solidified.
+ * Inclusion latency is taken from the block timestamp, so the load box and the witnesses should
+ * share a synchronized clock. Solidity latency is taken when the poller sees the block solid.
+ */
+public class ConfirmationTracker {
+
+  private static final Logger logger = LoggerFactory.getLogger("ConfirmationTracker");
+  /**
+   * Half of the txid is plenty to tell apart the transactions of a run.
+   */
+  private static final int TXID_PREFIX = 16;
+  /**
+   * Max blocks returned by one getBlockByLimitNext call.
+   */
+  private static final int BLOCK_BATCH = 100;
+  private static final long POLL_MILLIS = 1000;
+  private static final long SWEEP_MILLIS = 30_000;
+
+  private final GrpcClient fullNode;
+  private final GrpcClient solidityNode;
+  private final long timeout;
+  private final OffHeapHashTable pending;
+  private final LatencyRecorder blockLatency = new LatencyRecorder();
+  private final LatencyRecorder solidityLatency = new LatencyRecorder();
+  // block number -> broadcast times of its tracked transactions, only used by the poller
+  private final TreeMap<Long, long[]> unsolidified = new TreeMap<>();
+  private final LongAdder broadcast = new LongAdder();
+  private final LongAdder included = new LongAdder();
+  private final LongAdder solidified = new LongAdder();
+  private final LongAdder expired = new LongAdder();
+  private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor();
+  private long nextBlock = -1;
+  private long lastSweep = System.currentTimeMillis();
+
+  /**
+   * Uses a node of {@code fullnode.ip.list} and, if any, the first {@code soliditynode.ip.list}.
+   */
+  public static ConfirmationTracker fromConfig(Config config, long expectedSize, long timeout) {
+    GrpcClient solidityNode = null;
+    if (config.hasPath("soliditynode.ip.list")) {
+      solidityNode = new GrpcClient(null, config.getStringList("soliditynode.ip.list").get(0));
+    }
+    return new ConfirmationTracker(WalletClient.init(), solidityNode, expectedSize, timeout);
+  }
+
+  /**
+   * @param solidityNode may be null, solidity latency is not measured then
+   * @param expectedSize transactions expected in flight, the txid table grows past it if needed
+   * @param timeout milliseconds after which a transaction not in a block counts as dropped
+   */
+  public ConfirmationTracker(GrpcClient fullNode, GrpcClient solidityNode, long expectedSize,
+      long timeout) {
+    this.fullNode = fullNode;
+    this.solidityNode = solidityNode;
+    this.timeout = timeout;
+    this.pending = new OffHeapHashTable(TXID_PREFIX, expectedSize);
+  }
+
+  public void start() {
+    nextBlock = blockNum(fullNode.getBlock(-1)) + 1;
+    poller.scheduleWithFixedDelay(() -> {
+      try {
+        poll();
+      } catch (RuntimeException e) {
+        logger.warn("Confirmation poll failed: " + e.getMessage());
+      }
+    }, POLL_MILLIS, POLL_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Call once the node accepted the transaction.
+   *
+   * @param sentMillis when the transaction was sent, in epoch milliseconds: latencies count from
+   * there, not from the answer
+   */
+  public void onBroadcast(Transaction transaction, long sentMillis) {
+    onBroadcast(Hash.sha256(transaction.getRawData().toByteArray()), sentMillis);
+  }
+
+  public void onBroadcast(byte[] txid, long sentMillis) {
+    if (pending.putIfAbsent(txid, 0, sentMillis)) {
+      broadcast.increment();
+    }
+  }
+
+  private void poll() {
+    long head = blockNum(fullNode.getBlock(-1));
+    while (nextBlock <= head) {
+      long end = Math.min(nextBlock + BLOCK_BATCH, head + 1);
+      BlockList blocks = fullNode.getBlockByLimitNext(nextBlock, end)
+          .orElse(BlockList.getDefaultInstance());
+      if (blocks.getBlockCount() == 0) {
+        break;
+      }
+      for (Block block : blocks.getBlockList()) {
+        onBlock(block);
+        nextBlock = Math.max(nextBlock, blockNum(block) + 1);
+      }
+    }
+
+    if (solidityNode != null) {
+      long solid = blockNum(solidityNode.getBlock(-1));
+      long now = System.currentTimeMillis();
+      Iterator<Map.Entry<Long, long[]>> it = unsolidified.headMap(solid, true).entrySet()
+          .iterator();
+      while (it.hasNext()) {
+        for (long sent : it.next().getValue()) {
+          solidityLatency.record(TimeUnit.MILLISECONDS.toNanos(now - sent));
+          solidified.increment();
+        }
+        it.remove();
+      }
+    }
+
+    if (System.currentTimeMillis() - lastSweep > SWEEP_MILLIS) {
+      sweep();
+    }
+  }
+
+  private void onBlock(Block block) {
+    long timestamp = block.getBlockHeader().getRawData().getTimestamp();
+    long[] sentTimes = new long[block.getTransactionsCount()];
+    int found = 0;
+    for (Transaction transaction : block.getTransactionsList()) {
+      byte[] txid = Hash.sha256(transaction.getRawData().toByteArray());
+      long sent = pending.remove(txid, 0, -1);
+      if (sent < 0) {
+        continue;
+      }
+      blockLatency.record(TimeUnit.MILLISECONDS.toNanos(Math.max(0, timestamp - sent)));
+      included.increment();
+      sentTimes[found++] = sent;
+    }
+    if (solidityNode != null && found > 0) {
+      unsolidified.put(blockNum(block), Arrays.copyOf(sentTimes, found));
+    }
+  }
+
+  private void sweep() {
+    long deadline = System.currentTimeMillis() - timeout;
+    expired.add(pending.removeIf(sent -> sent < deadline));
+    lastSweep = System.currentTimeMillis();
+  }
+
+  private static long blockNum(Block block) {
+    return block.getBlockHeader().getRawData().getNumber();
+  }
+
+  /**
+   * Waits until every tracked transaction is in a block or timed out, then stops polling.
+   */
+  public void awaitDrain() throws InterruptedException {
+    long deadline = System.currentTimeMillis() + timeout + POLL_MILLIS;
+    while (pending.size() > 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(POLL_MILLIS);
+    }
+    poller.shutdown();
+    poller.awaitTermination(POLL_MILLIS * 10, TimeUnit.MILLISECONDS);
+    expired.add(pending.removeIf(sent -> true));
+  }
+
+  public long getBroadcast() {
+    return broadcast.sum();
+  }
+
+  public long getIncluded() {
+    return included.sum();
+  }
+
+  public long getSolidified() {
+    return solidified.sum();
+  }
+
+  public long getExpired() {
+    return expired.sum();
+  }
+
+  public String report() {
+    String report = "broadcast: " + getBroadcast()
+        + ", included: " + getIncluded()
+        + ", expired: " + getExpired()
+        + ", pending: " + pending.size()
+        + ", block latency: " + LatencyRecorder.format(blockLatency.nextInterval());
+    if (solidityNode != null) {
+      report += ", solidified: " + getSolidified()
+          + ", solidity latency: " + LatencyRecorder.format(solidityLatency.nextInterval());
+    }
+    return report;
+  }
+
+  public String totalReport() {
+    blockLatency.nextInterval();
+    solidityLatency.nextInterval();
+    String report = "broadcast: " + getBroadcast()
+        + ", included: " + getIncluded()
+        + ", expired: " + getExpired()
+        + ", block latency: " + LatencyRecorder.format(blockLatency.getTotal());
+    if (solidityNode != null) {
+      report += ", solidified: " + getSolidified()
+          + ", solidity latency: " + LatencyRecorder.format(solidityLatency.getTotal());
+    }
+    return report;
+  }
+}
@@ -1,11 +1,19 @@
 package org.tron.service;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.protobuf.ByteString;
+import io.grpc.CallOptions;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ClientCalls;
+import java.nio.ByteBuffer;
 import org.apache.commons.lang.StringUtils;
 import org.tron.api.GrpcAPI;
 import org.tron.api.GrpcAPI.*;
+import org.tron.api.DatabaseGrpc;
 import org.tron.api.WalletGrpc;
 import org.tron.api.WalletSolidityGrpc;
 import org.tron.common.utils.ByteArray;
@@ -24,10 +32,23 @@ import java.util.concurrent.TimeUnit;
 
 public class GrpcClient {
 
+  /**
+   * The BroadcastTransaction method of the generated stub with a pass through request marshaller.
+   */
+  private static final MethodDescriptor<ByteBuffer, Return> BROADCAST_RAW = MethodDescriptor
+      .<ByteBuffer, Return>newBuilder()
+      .setType(MethodType.UNARY)
+      .setFullMethodName(WalletGrpc.getBroadcastTransactionMethod().getFullMethodName())
+      .setRequestMarshaller(new ByteBufferMarshaller())
+      .setResponseMarshaller(ProtoUtils.marshaller(Return.getDefaultInstance()))
+      .build();
+
   private ManagedChannel channelFull = null;
   private ManagedChannel channelSolidity = null;
   private WalletGrpc.WalletBlockingStub blockingStubFull = null;
+  private WalletGrpc.WalletFutureStub futureStubFull = null;
   private WalletSolidityGrpc.WalletSolidityBlockingStub blockingStubSolidity = null;
+  private DatabaseGrpc.DatabaseBlockingStub databaseStubFull = null;
 
 //  public GrpcClient(String host, int port) {
 //    channel = ManagedChannelBuilder.forAddress(host, port)
@@ -42,6 +63,8 @@ public class GrpcClient {
               .usePlaintext(true)
               .build();
       blockingStubFull = WalletGrpc.newBlockingStub(channelFull);
+      futureStubFull = WalletGrpc.newFutureStub(channelFull);
+      databaseStubFull = DatabaseGrpc.newBlockingStub(channelFull);
     }
     if(!StringUtils.isEmpty(soliditynode)){
       channelSolidity = ManagedChannelBuilder.forTarget(soliditynode)
@@ -116,12 +139,29 @@ public class GrpcClient {
   }
 
   public GrpcAPI.Return broadcastTransaction(Transaction signaturedTransaction) {
-    Return response = blockingStubFull.broadcastTransaction(signaturedTransaction);
+    // failures are the caller's to report, nothing is printed on the send path
+    return blockingStubFull.broadcastTransaction(signaturedTransaction);
+  }
 
-    if (!response.getResult()) {
-      System.out.println(response.getCode() + "" + response.getMessage() + " "+response.getCodeValue() );
-    }
-    return response;
+  /**
+   * Same as {@link #broadcastTransaction(Transaction)} without waiting for the node, the caller
+   * owns the result handling.
+   */
+  public ListenableFuture<Return> broadcastTransactionAsync(Transaction signaturedTransaction) {
+    return futureStubFull.broadcastTransaction(signaturedTransaction);
+  }
+
+  /**
+   * Same as {@link #broadcastTransactionAsync(Transaction)} for a transaction that is already
+   * serialized, a corpus slice for instance: the bytes are sent as they are.
+   */
+  public ListenableFuture<Return> broadcastTransactionAsync(ByteBuffer signaturedTransaction) {
+    return ClientCalls.futureUnaryCall(channelFull.newCall(BROADCAST_RAW, CallOptions.DEFAULT),
+        signaturedTransaction);
+  }
+
+  public BlockReference getBlockReference() {
+    return databaseStubFull.getBlockReference(EmptyMessage.newBuilder().build());
   }
 
   public Block getBlock(long blockNum) {
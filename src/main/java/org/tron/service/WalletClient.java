@@ -95,6 +95,19 @@ public class WalletClient {
 
 
 
+  /**
+   * Channels to every node of {@code fullnode.ip.list}, built on first use.
+   */
+  public static ChannelPool getChannelPool() {
+    return ChannelPoolHolder.POOL;
+  }
+
+  private static class ChannelPoolHolder {
+
+    private static final ChannelPool POOL = ChannelPool
+        .fromConfig(Configuration.getByPath("config.conf"));
+  }
+
   public static String selectFullNode() {
     Map<String, String> witnessMap = new HashMap<>();
     Config config = Configuration.getByPath("config.conf");
@@ -345,7 +358,20 @@ public class WalletClient {
   }
 
   public static GrpcAPI.Return broadcastTransaction(Transaction transaction){
-    return rpcCli.broadcastTransaction(transaction);
+    ChannelPool pool = getChannelPool();
+    byte[] key = null;
+    if (pool.getStrategy() == ChannelPool.Strategy.KEY) {
+      key = TransactionUtils.getOwner(transaction.getRawData().getContract(0));
+    }
+    ChannelPool.PooledChannel channel = pool.select(key);
+    channel.onSend();
+    GrpcAPI.Return response = null;
+    try {
+      response = channel.getClient().broadcastTransaction(transaction);
+      return response;
+    } finally {
+      channel.onResponse(response != null && response.getResult());
+    }
   }
 
   public boolean createAssetIssue(AssetIssueContract contract) {
@@ -383,6 +409,10 @@ public class WalletClient {
     return rpcCli.createAssetIssue(contract);
   }
 
+  public static BlockReference getBlockReference() {
+    return rpcCli.getBlockReference();
+  }
+
   public static Block GetBlock(long blockNum) {
     return rpcCli.getBlock(blockNum);
   }
@@ -0,0 +1,55 @@
+package org.tron.stress;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.csv.CSVRecord;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.CsvUtils;
+
+/**
+ * Sender accounts of a stress run.
+ *
+ * <p>The pool is saved as one hex private key per line, the same format as the private key files
+ * the programs already take, so a pool provisioned once can be reused by every later run.
+ */
+public class AccountPool {
+
+  private final List<ECKey> keys;
+
+  public AccountPool(List<ECKey> keys) {
+    this.keys = Collections.unmodifiableList(new ArrayList<>(keys));
+  }
+
+  public static AccountPool load(File file) {
+    List<ECKey> keys = new ArrayList<>();
+    for (CSVRecord record : CsvUtils.read(file)) {
+      keys.add(ECKey.fromPrivate(ByteArray.fromHexString(record.get(0))));
+    }
+    return new AccountPool(keys);
+  }
+
+  public void save(File file) throws IOException {
+    try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+      for (ECKey key : keys) {
+        writer.println(ByteArray.toHexString(key.getPrivKeyBytes()));
+      }
+    }
+  }
+
+  public int size() {
+    return keys.size();
+  }
+
+  public ECKey get(int i) {
+    return keys.get(i);
+  }
+
+  public List<ECKey> getKeys() {
+    return keys;
+  }
+}
@@ -0,0 +1,291 @@
+package org.tron.stress;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Message;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tron.api.GrpcAPI.BlockList;
+import org.tron.api.GrpcAPI.Return;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.crypto.Hash;
+import org.tron.common.crypto.KeyDerivation;
+import org.tron.common.utils.ParallelSigner;
+import org.tron.common.utils.TransactionBuilder;
+import org.tron.common.utils.Utils;
+import org.tron.protos.Contract.FreezeBalanceContract;
+import org.tron.protos.Protocol.Block;
+import org.tron.protos.Protocol.Transaction;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+import org.tron.service.BroadcastEngine;
+import org.tron.service.GrpcClient;
+import org.tron.service.WalletClient;
+
+/**
+ * Creates, funds and freezes the sender accounts of a stress run.
+ *
+ * <p>Accounts are funded along a tree: the root funds {@code fanout} accounts, each of them funds
+ * {@code fanout} more and so on, every account forwarding the balance of its whole subtree. All
+ * the transfers of a level go out at once, so N accounts take about log(N) / log(fanout) rounds
+ * of a few blocks. A round is confirmed by walking the new blocks, and what did not make it into
+ * a block before expiring is sent again.
+ */
+public class AccountProvisioner {
+
+  private static final Logger logger = LoggerFactory.getLogger("AccountProvisioner");
+  /**
+   * Kept by a funding account for every transfer it sends, covers the bandwidth it may burn.
+   */
+  private static final long TRANSFER_RESERVE = 1_000_000L;
+  private static final int MAX_ATTEMPTS = 5;
+  private static final int BLOCK_BATCH = 100;
+  private static final long POLL_MILLIS = 1000;
+  /**
+   * Time for a block to include a transaction sent just before it expired.
+   */
+  private static final long INCLUSION_GRACE_MILLIS = 6000;
+
+  private final BroadcastEngine engine;
+  private final GrpcClient fullNode;
+  private final ParallelSigner signer;
+  private final int fanout;
+
+  /**
+   * @param fullNode node whose blocks confirm the rounds
+   * @param fanout accounts funded by every account of the tree
+   */
+  public AccountProvisioner(BroadcastEngine engine, GrpcClient fullNode, int fanout,
+      int parallelism) {
+    if (fanout < 1) {
+      throw new IllegalArgumentException("Fanout must be positive, found " + fanout);
+    }
+    this.engine = engine;
+    this.fullNode = fullNode;
+    this.signer = new ParallelSigner(parallelism);
+    this.fanout = fanout;
+  }
+
+  /**
+   * Fresh keys from a random seed: a single draw from the shared {@code SecureRandom}, the keys
+   * themselves are derived on every core.
+   */
+  public static List<ECKey> newKeys(int count) {
+    byte[] seed = new byte[32];
+    Utils.getRandom().nextBytes(seed);
+    return new KeyDerivation(seed).keys(0, count);
+  }
+
+  /**
+   * @param root funds the whole tree, it must hold {@code keys.size() * (balance + 1 TRX)}
+   * @param balance left to every account, frozen balance included
+   * @param frozenBalance frozen by every account for bandwidth, 0 to skip freezing
+   * @param frozenDuration days
+   * @return the accounts funded, and frozen if asked, in the order of {@code keys}
+   */
+  public AccountPool provision(ECKey root, List<ECKey> keys, long balance, long frozenBalance,
+      long frozenDuration) throws InterruptedException {
+    int count = keys.size();
+    // children always come after their parent, so a reverse walk sums every subtree
+    long[] amounts = new long[count];
+    for (int i = count - 1; i >= 0; i--) {
+      amounts[i] += balance;
+      int parent = parent(i);
+      if (parent >= 0) {
+        amounts[parent] += amounts[i] + TRANSFER_RESERVE;
+      }
+    }
+
+    boolean[] ready = new boolean[count];
+    int level = 0;
+    for (int start = 0, end = Math.min(fanout, count); start < count;
+        start = end, end = (int) Math.min(count, (end + 1L) * fanout)) {
+      List<Job> jobs = new ArrayList<>();
+      for (int i = start; i < end; i++) {
+        int parent = parent(i);
+        if (parent >= 0 && !ready[parent]) {
+          // the parent never got the money of its subtree
+          continue;
+        }
+        ECKey from = parent < 0 ? root : keys.get(parent);
+        jobs.add(new Job(i, from, WalletClient.createTransferContract(keys.get(i).getAddress(),
+            from.getAddress(), amounts[i]), ContractType.TransferContract));
+      }
+      for (Job job : run(jobs)) {
+        ready[job.index] = true;
+      }
+      logger.info("Funding level " + level++ + ": " + (end - start) + " accounts");
+    }
+
+    if (frozenBalance > 0) {
+      freeze(keys, ready, frozenBalance, frozenDuration);
+    }
+    return pool(keys, ready);
+  }
+
+  /**
+   * Only freezes, for accounts funded by an earlier run that stopped before freezing them.
+   *
+   * @param keys accounts holding at least {@code frozenBalance} plus the bandwidth fee
+   * @return the accounts frozen, in the order of {@code keys}
+   */
+  public AccountPool freeze(List<ECKey> keys, long frozenBalance, long frozenDuration)
+      throws InterruptedException {
+    boolean[] ready = new boolean[keys.size()];
+    Arrays.fill(ready, true);
+    freeze(keys, ready, frozenBalance, frozenDuration);
+    return pool(keys, ready);
+  }
+
+  /**
+   * Freezes the accounts marked ready, then leaves only those frozen marked.
+   */
+  private void freeze(List<ECKey> keys, boolean[] ready, long frozenBalance,
+      long frozenDuration) throws InterruptedException {
+    List<Job> jobs = new ArrayList<>();
+    for (int i = 0; i < keys.size(); i++) {
+      if (ready[i]) {
+        ECKey key = keys.get(i);
+        FreezeBalanceContract contract = FreezeBalanceContract.newBuilder()
+            .setOwnerAddress(ByteString.copyFrom(key.getAddress()))
+            .setFrozenBalance(frozenBalance)
+            .setFrozenDuration(frozenDuration)
+            .build();
+        jobs.add(new Job(i, key, contract, ContractType.FreezeBalanceContract));
+        ready[i] = false;
+      }
+    }
+    for (Job job : run(jobs)) {
+      ready[job.index] = true;
+    }
+  }
+
+  private AccountPool pool(List<ECKey> keys, boolean[] ready) {
+    List<ECKey> provisioned = IntStream.range(0, keys.size()).filter(i -> ready[i])
+        .mapToObj(keys::get).collect(Collectors.toList());
+    logger.info("Provisioned " + provisioned.size() + " of " + keys.size() + " accounts, "
+        + signer.report());
+    return new AccountPool(provisioned);
+  }
+
+  public void shutdown() {
+    signer.shutdown();
+  }
+
+  private int parent(int i) {
+    return i < fanout ? -1 : i / fanout - 1;
+  }
+
+  /**
+   * Sends every job, retrying until it is in a block or out of attempts.
+   *
+   * @return the confirmed jobs
+   */
+  private List<Job> run(List<Job> jobs) throws InterruptedException {
+    List<Job> remaining = jobs;
+    for (int attempt = 1; attempt <= MAX_ATTEMPTS && !remaining.isEmpty(); attempt++) {
+      TransactionBuilder builder = new TransactionBuilder(fullNode.getBlockReference(),
+          TransactionBuilder.DEFAULT_EXPIRATION);
+      long nextBlock = blockNum(fullNode.getBlock(-1)) + 1;
+
+      List<Job> batch = remaining;
+      Transaction[] transactions = new Transaction[batch.size()];
+      for (int i = 0; i < transactions.length; i++) {
+        transactions[i] = builder.createTransaction(batch.get(i).contract, batch.get(i).type);
+      }
+      signer.sign(transactions, i -> batch.get(i).key);
+      long deadline = System.currentTimeMillis() + TransactionBuilder.DEFAULT_EXPIRATION
+          + INCLUSION_GRACE_MILLIS;
+
+      Map<ByteString, Job> pending = new ConcurrentHashMap<>();
+      for (int i = 0; i < transactions.length; i++) {
+        Job job = batch.get(i);
+        ByteString txid = ByteString.copyFrom(
+            Hash.sha256(transactions[i].getRawData().toByteArray()));
+        pending.put(txid, job);
+        engine.broadcast(job.key.getAddress(), transactions[i], new FutureCallback<Return>() {
+          @Override
+          public void onSuccess(Return result) {
+            if (!result.getResult()) {
+              pending.remove(txid);
+              logger.warn("Rejected " + job.type + ": " + result.getCode() + " "
+                  + result.getMessage().toStringUtf8());
+            }
+          }
+
+          @Override
+          public void onFailure(Throwable t) {
+            pending.remove(txid);
+            logger.warn("Broadcast failed: " + t.getMessage());
+          }
+        });
+      }
+      engine.awaitCompletion();
+
+      while (!pending.isEmpty() && System.currentTimeMillis() < deadline) {
+        Thread.sleep(POLL_MILLIS);
+        nextBlock = scan(nextBlock, pending);
+      }
+
+      remaining = batch.stream().filter(job -> !job.confirmed).collect(Collectors.toList());
+      if (!remaining.isEmpty()) {
+        logger.info("Attempt " + attempt + ": " + remaining.size() + " of " + batch.size()
+            + " transactions not confirmed");
+      }
+    }
+    return jobs.stream().filter(job -> job.confirmed).collect(Collectors.toList());
+  }
+
+  /**
+   * Confirms the pending transactions found in the blocks from {@code nextBlock} to the head.
+   *
+   * @return the next block to scan
+   */
+  private long scan(long nextBlock, Map<ByteString, Job> pending) {
+    long head = blockNum(fullNode.getBlock(-1));
+    while (nextBlock <= head) {
+      BlockList blocks = fullNode.getBlockByLimitNext(nextBlock,
+          Math.min(nextBlock + BLOCK_BATCH, head + 1)).orElse(BlockList.getDefaultInstance());
+      if (blocks.getBlockCount() == 0) {
+        break;
+      }
+      for (Block block : blocks.getBlockList()) {
+        for (Transaction transaction : block.getTransactionsList()) {
+          Job job = pending.remove(ByteString.copyFrom(
+              Hash.sha256(transaction.getRawData().toByteArray())));
+          if (job != null) {
+            job.confirmed = true;
+          }
+        }
+        nextBlock = Math.max(nextBlock, blockNum(block) + 1);
+      }
+    }
+    return nextBlock;
+  }
+
+  private static long blockNum(Block block) {
+    return block.getBlockHeader().getRawData().getNumber();
+  }
+
+  private static class Job {
+
+    private final int index;
+    private final ECKey key;
+    private final Message contract;
+    private final ContractType type;
+    private volatile boolean confirmed;
+
+    Job(int index, ECKey key, Message contract, ContractType type) {
+      this.index = index;
+      this.key = key;
+      this.contract = contract;
+      this.type = type;
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package org.tron.stress;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tron.api.GrpcAPI.Return.response_code;
+import org.tron.stress.metrics.ResponseCounter;
+
+/**
+ * Additive increase, multiplicative decrease of the send rate, driven by SERVER_BUSY answers.
+ *
+ * <p>Every period the rate of the scheduler is cut by {@code decrease} if the node answered
+ * SERVER_BUSY since the previous period, and raised by {@code increase} otherwise, between the
+ * floor and the target rate. The rate settles just under what the node accepts, so a run tells
+ * how much it can take instead of burying it under refusals. Other errors do not move the rate:
+ * a node refusing signatures is misconfigured, not overloaded.
+ */
+public class AimdController {
+
+  private static final Logger logger = LoggerFactory.getLogger("AimdController");
+
+  private final OpenLoopScheduler scheduler;
+  private final ResponseCounter responses;
+  private final double floor;
+  private final double target;
+  private final double increase;
+  private final double decrease;
+  private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+      r -> {
+        Thread thread = new Thread(r, "aimd");
+        thread.setDaemon(true);
+        return thread;
+      });
+  private long busy;
+
+  /**
+   * @param floor lowest rate, in transactions per second
+   * @param target highest rate, the rate asked for the run
+   * @param increase added to the rate after a period without SERVER_BUSY
+   * @param decrease factor applied to the rate after a period with SERVER_BUSY, below 1
+   */
+  public AimdController(OpenLoopScheduler scheduler, ResponseCounter responses, double floor,
+      double target, double increase, double decrease) {
+    if (floor <= 0 || floor > target || decrease <= 0 || decrease >= 1) {
+      throw new IllegalArgumentException("Invalid AIMD bounds");
+    }
+    this.scheduler = scheduler;
+    this.responses = responses;
+    this.floor = floor;
+    this.target = target;
+    this.increase = increase;
+    this.decrease = decrease;
+  }
+
+  /**
+   * Defaults: a tenth of the target as floor, steps of 2% of the target, rate halved on
+   * SERVER_BUSY.
+   */
+  public static AimdController of(OpenLoopScheduler scheduler, ResponseCounter responses,
+      double target) {
+    return new AimdController(scheduler, responses, target / 10, target, target / 50, 0.5);
+  }
+
+  public void start(long period, TimeUnit unit) {
+    busy = responses.getCount(response_code.SERVER_BUSY);
+    executor.scheduleAtFixedRate(this::adjust, period, period, unit);
+  }
+
+  private void adjust() {
+    long count = responses.getCount(response_code.SERVER_BUSY);
+    double rate = scheduler.getRate();
+    double next;
+    if (count > busy) {
+      next = Math.max(floor, rate * decrease);
+      logger.info("SERVER_BUSY x" + (count - busy) + ", rate " + (long) rate + " -> "
+          + (long) next);
+    } else {
+      next = Math.min(target, rate + increase);
+    }
+    busy = count;
+    if (next != rate) {
+      scheduler.setRate(next);
+    }
+  }
+
+  public double getRate() {
+    return scheduler.getRate();
+  }
+
+  public void shutdown() {
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,138 @@
+package org.tron.stress;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Message;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.tron.common.crypto.KeyTable;
+import org.tron.protos.Contract.AccountUpdateContract;
+import org.tron.protos.Contract.FreezeBalanceContract;
+import org.tron.protos.Contract.UnfreezeBalanceContract;
+import org.tron.protos.Contract.VoteWitnessContract;
+import org.tron.protos.Contract.WithdrawBalanceContract;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+import org.tron.service.WalletClient;
+
+/**
+ * Builds the contract of one generated transaction, one implementation per contract type.
+ *
+ * <p>Implementations are called by every producer thread of a {@link TransactionGenerator} at
+ * once and keep no mutable state: the contract only depends on the sequence number and the key
+ * that signs it.
+ */
+public interface ContractGenerator {
+
+  ContractType getType();
+
+  /**
+   * @param n sequence number of the transaction in the run
+   * @param key index in {@code keys} of the owner, the key signing the transaction
+   */
+  Message create(long n, int key, KeyTable keys);
+
+  /**
+   * @param receivers empty to have every key send to the next one
+   */
+  static ContractGenerator transfer(List<byte[]> receivers, long amount) {
+    return of(ContractType.TransferContract, (n, key, keys) -> WalletClient
+        .createTransferContract(receiver(receivers, n, key, keys), keys.getAddress(key), amount));
+  }
+
+  /**
+   * TRC10 transfers of {@code asset}, the owners must hold some.
+   */
+  static ContractGenerator transferAsset(String asset, List<byte[]> receivers, long amount) {
+    byte[] name = asset.getBytes(StandardCharsets.UTF_8);
+    return of(ContractType.TransferAssetContract, (n, key, keys) -> WalletClient
+        .createTransferAssetContract(receiver(receivers, n, key, keys), name,
+            keys.getAddress(key), amount));
+  }
+
+  /**
+   * Buys {@code asset} from its issuer, the issue must be running.
+   */
+  static ContractGenerator participateAssetIssue(String asset, byte[] issuer, long amount) {
+    byte[] name = asset.getBytes(StandardCharsets.UTF_8);
+    return of(ContractType.ParticipateAssetIssueContract, (n, key, keys) -> WalletClient
+        .participateAssetIssueContract(issuer, name, keys.getAddress(key), amount));
+  }
+
+  static ContractGenerator freezeBalance(long amount, long days) {
+    return of(ContractType.FreezeBalanceContract, (n, key, keys) -> FreezeBalanceContract
+        .newBuilder()
+        .setOwnerAddress(keys.getAddressString(key))
+        .setFrozenBalance(amount)
+        .setFrozenDuration(days)
+        .build());
+  }
+
+  /**
+   * Only succeeds for balances frozen long enough, the node still has to check every one.
+   */
+  static ContractGenerator unfreezeBalance() {
+    return of(ContractType.UnfreezeBalanceContract, (n, key, keys) -> UnfreezeBalanceContract
+        .newBuilder()
+        .setOwnerAddress(keys.getAddressString(key))
+        .build());
+  }
+
+  /**
+   * One vote per transaction, the witnesses taken in turn. The owners need frozen balance.
+   */
+  static ContractGenerator voteWitness(List<byte[]> witnesses) {
+    return of(ContractType.VoteWitnessContract, (n, key, keys) -> VoteWitnessContract
+        .newBuilder()
+        .setOwnerAddress(keys.getAddressString(key))
+        .addVotes(VoteWitnessContract.Vote.newBuilder()
+            .setVoteAddress(ByteString.copyFrom(witnesses.get((int) (n % witnesses.size()))))
+            .setVoteCount(1))
+        .build());
+  }
+
+  /**
+   * Names each account after its sequence number, the node accepts a name only once.
+   */
+  static ContractGenerator updateAccount() {
+    return of(ContractType.AccountUpdateContract, (n, key, keys) -> AccountUpdateContract
+        .newBuilder()
+        .setOwnerAddress(keys.getAddressString(key))
+        .setAccountName(ByteString.copyFromUtf8("lever" + n))
+        .build());
+  }
+
+  /**
+   * Only witnesses can withdraw, for the others it measures the cost of a rejection.
+   */
+  static ContractGenerator withdrawBalance() {
+    return of(ContractType.WithdrawBalanceContract, (n, key, keys) -> WithdrawBalanceContract
+        .newBuilder()
+        .setOwnerAddress(keys.getAddressString(key))
+        .build());
+  }
+
+  static byte[] receiver(List<byte[]> receivers, long n, int key, KeyTable keys) {
+    return receivers.isEmpty()
+        ? keys.getAddress((key + 1) % keys.size())
+        : receivers.get((int) (n % receivers.size()));
+  }
+
+  static ContractGenerator of(ContractType type, Factory factory) {
+    return new ContractGenerator() {
+      @Override
+      public ContractType getType() {
+        return type;
+      }
+
+      @Override
+      public Message create(long n, int key, KeyTable keys) {
+        return factory.create(n, key, keys);
+      }
+    };
+  }
+
+  @FunctionalInterface
+  interface Factory {
+
+    Message create(long n, int key, KeyTable keys);
+  }
+}
@@ -0,0 +1,248 @@
+package org.tron.stress;
+
+import com.typesafe.config.Config;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Send rate as a piecewise function of the time since the start of the run.
+ *
+ * <p>Profiles are declared in HOCON under {@code profiles.<name>} as a list of phases played in
+ * order:
+ *
+ * <pre>
+ * profiles.soak = [
+ *   { type = ramp, duration = 2m, from = 100, to = 2000 }
+ *   { type = hold, duration = 10m, rate = 2000 }
+ *   { type = step, duration = 10m, from = 2000, to = 6000, steps = 4 }
+ *   { type = spike, duration = 2m, rate = 2000, peak = 8000, length = 10s }
+ *   { type = sine, duration = 10m, rate = 2000, amplitude = 1000, period = 1m }
+ *   { type = pause, duration = 30s }
+ * ]
+ * </pre>
+ *
+ * Rates are in transactions per second. A spike holds its peak in the middle of the phase, a
+ * pause sends nothing.
+ */
+public class LoadProfile {
+
+  private final List<Phase> phases;
+  private final long durationNanos;
+
+  public LoadProfile(List<Phase> phases) {
+    if (phases.isEmpty()) {
+      throw new IllegalArgumentException("A profile needs at least one phase");
+    }
+    this.phases = Collections.unmodifiableList(new ArrayList<>(phases));
+    long duration = 0;
+    for (Phase phase : phases) {
+      duration += phase.getDurationNanos();
+    }
+    this.durationNanos = duration;
+  }
+
+  /**
+   * Reads {@code profiles.<name>}, see the class comment.
+   */
+  public static LoadProfile fromConfig(Config config, String name) {
+    String path = "profiles." + name;
+    if (!config.hasPath(path)) {
+      throw new IllegalArgumentException("No profile " + path + " in the configuration");
+    }
+    List<Phase> phases = new ArrayList<>();
+    for (Config phase : config.getConfigList(path)) {
+      phases.add(Phase.fromConfig(phase));
+    }
+    return new LoadProfile(phases);
+  }
+
+  /**
+   * @return 0 or less during a pause and once the profile is over
+   */
+  public double rateAt(long elapsedNanos) {
+    if (elapsedNanos < 0) {
+      return 0;
+    }
+    long start = 0;
+    for (Phase phase : phases) {
+      if (elapsedNanos < start + phase.getDurationNanos()) {
+        return phase.rateAt(elapsedNanos - start);
+      }
+      start += phase.getDurationNanos();
+    }
+    return 0;
+  }
+
+  /**
+   * @return index of the phase played at {@code elapsedNanos}, the phase count once over
+   */
+  public int phaseAt(long elapsedNanos) {
+    long start = 0;
+    for (int i = 0; i < phases.size(); i++) {
+      start += phases.get(i).getDurationNanos();
+      if (elapsedNanos < start) {
+        return i;
+      }
+    }
+    return phases.size();
+  }
+
+  public List<Phase> getPhases() {
+    return phases;
+  }
+
+  public long getDurationNanos() {
+    return durationNanos;
+  }
+
+  /**
+   * @return the highest rate of the profile, sampled every 100ms
+   */
+  public double getPeakRate() {
+    double peak = 0;
+    for (long t = 0; t < durationNanos; t += TimeUnit.MILLISECONDS.toNanos(100)) {
+      peak = Math.max(peak, rateAt(t));
+    }
+    return peak;
+  }
+
+  /**
+   * One segment of a profile.
+   */
+  public abstract static class Phase {
+
+    private final String type;
+    private final long durationNanos;
+
+    Phase(String type, long durationNanos) {
+      if (durationNanos <= 0) {
+        throw new IllegalArgumentException("A " + type + " phase needs a positive duration");
+      }
+      this.type = type;
+      this.durationNanos = durationNanos;
+    }
+
+    static Phase fromConfig(Config config) {
+      String type = config.getString("type");
+      long duration = config.getDuration("duration", TimeUnit.NANOSECONDS);
+      switch (type) {
+        case "hold":
+          return hold(duration, config.getDouble("rate"));
+        case "ramp":
+          return ramp(duration, config.getDouble("from"), config.getDouble("to"));
+        case "step":
+          return step(duration, config.getDouble("from"), config.getDouble("to"),
+              config.getInt("steps"));
+        case "spike":
+          return spike(duration, config.getDouble("rate"), config.getDouble("peak"),
+              config.getDuration("length", TimeUnit.NANOSECONDS));
+        case "sine":
+          return sine(duration, config.getDouble("rate"), config.getDouble("amplitude"),
+              config.getDuration("period", TimeUnit.NANOSECONDS));
+        case "pause":
+          return pause(duration);
+        default:
+          throw new IllegalArgumentException("Unknown phase type " + type
+              + ", expected hold, ramp, step, spike, sine or pause");
+      }
+    }
+
+    public static Phase hold(long durationNanos, double rate) {
+      return new Phase("hold", durationNanos) {
+        @Override
+        double rateAt(long elapsedNanos) {
+          return rate;
+        }
+      };
+    }
+
+    /**
+     * Linear from {@code from} to {@code to}.
+     */
+    public static Phase ramp(long durationNanos, double from, double to) {
+      return new Phase("ramp", durationNanos) {
+        @Override
+        double rateAt(long elapsedNanos) {
+          return from + (to - from) * elapsedNanos / durationNanos;
+        }
+      };
+    }
+
+    /**
+     * {@code steps} plateaus of equal length, the first at {@code from}, the last at {@code to}.
+     */
+    public static Phase step(long durationNanos, double from, double to, int steps) {
+      if (steps < 1) {
+        throw new IllegalArgumentException("A step phase needs at least one step");
+      }
+      return new Phase("step", durationNanos) {
+        @Override
+        double rateAt(long elapsedNanos) {
+          if (steps == 1) {
+            return from;
+          }
+          long step = elapsedNanos * steps / durationNanos;
+          return from + (to - from) * step / (steps - 1);
+        }
+      };
+    }
+
+    /**
+     * {@code rate} with {@code peak} for {@code lengthNanos} in the middle of the phase.
+     */
+    public static Phase spike(long durationNanos, double rate, double peak, long lengthNanos) {
+      long start = Math.max(0, (durationNanos - lengthNanos) / 2);
+      return new Phase("spike", durationNanos) {
+        @Override
+        double rateAt(long elapsedNanos) {
+          return elapsedNanos >= start && elapsedNanos < start + lengthNanos ? peak : rate;
+        }
+      };
+    }
+
+    /**
+     * {@code rate + amplitude * sin(2 pi t / period)}.
+     */
+    public static Phase sine(long durationNanos, double rate, double amplitude,
+        long periodNanos) {
+      if (periodNanos <= 0) {
+        throw new IllegalArgumentException("A sine phase needs a positive period");
+      }
+      return new Phase("sine", durationNanos) {
+        @Override
+        double rateAt(long elapsedNanos) {
+          return rate + amplitude * Math.sin(2 * Math.PI * elapsedNanos / periodNanos);
+        }
+      };
+    }
+
+    public static Phase pause(long durationNanos) {
+      return new Phase("pause", durationNanos) {
+        @Override
+        double rateAt(long elapsedNanos) {
+          return 0;
+        }
+      };
+    }
+
+    /**
+     * @param elapsedNanos time since the start of the phase
+     */
+    abstract double rateAt(long elapsedNanos);
+
+    public String getType() {
+      return type;
+    }
+
+    public long getDurationNanos() {
+      return durationNanos;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s %.1fs", type, durationNanos / 1e9);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package org.tron.stress;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands out send slots on a fixed schedule, whatever the node answers.
+ *
+ * <p>Slot {@code n} is due at {@code start + n / rate}. A sender that falls behind keeps the time
+ * its slot was due, so latencies measured from the returned time include the queueing a real
+ * client would have suffered instead of hiding it (coordinated omission).
+ *
+ * <p>A paused scheduler hands out no slot. The schedule restarts from the time of
+ * {@link #resume()}: a pause is not a backlog to catch up afterwards.
+ */
+public class OpenLoopScheduler {
+
+  private static final long PAUSE_PARK_NANOS = 1_000_000;
+
+  private final AtomicLong next;
+  private volatile long intervalNanos;
+  private volatile boolean paused;
+
+  public OpenLoopScheduler(double tps) {
+    setRate(tps);
+    this.next = new AtomicLong(System.nanoTime());
+  }
+
+  /**
+   * Slots claimed after this call are spaced for the new rate, senders are never paused.
+   */
+  public void setRate(double tps) {
+    if (tps <= 0) {
+      throw new IllegalArgumentException("Rate must be positive, found " + tps);
+    }
+    this.intervalNanos = Math.max(1, (long) (1_000_000_000D / tps));
+  }
+
+  public double getRate() {
+    return 1_000_000_000D / intervalNanos;
+  }
+
+  public void pause() {
+    paused = true;
+  }
+
+  public void resume() {
+    if (paused) {
+      next.accumulateAndGet(System.nanoTime(), Math::max);
+      paused = false;
+    }
+  }
+
+  public boolean isPaused() {
+    return paused;
+  }
+
+  /**
+   * Claims the next slot without waiting for it.
+   *
+   * @return intended send time, in {@link System#nanoTime()} units
+   */
+  public long next() {
+    return next.getAndAdd(intervalNanos);
+  }
+
+  /**
+   * Claims the next slot and parks until it is due.
+   *
+   * @return intended send time, in {@link System#nanoTime()} units
+   */
+  public long acquire() {
+    while (paused) {
+      LockSupport.parkNanos(PAUSE_PARK_NANOS);
+    }
+    long intended = next();
+    long wait;
+    while ((wait = intended - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(wait);
+    }
+    return intended;
+  }
+}
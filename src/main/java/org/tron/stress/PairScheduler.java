@@ -0,0 +1,48 @@
+package org.tron.stress;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits the sender x receiver space of a key set between worker threads.
+ *
+ * <p>Work is handed out one sender at a time through a lock-free counter: the worker that claims
+ * a sender sends all of its transfers, so every pair is sent exactly once and no two workers ever
+ * sign for the same owner. Workers that finish early just claim more senders, which keeps the
+ * partitions balanced whatever the speed of each thread. Receivers are walked starting right
+ * after the sender, so concurrent senders hit different receivers.
+ */
+public class PairScheduler {
+
+  private final int keyCount;
+  private final AtomicInteger nextSender = new AtomicInteger();
+
+  public PairScheduler(int keyCount) {
+    this.keyCount = keyCount;
+  }
+
+  /**
+   * @return a sender no other worker got, -1 once every sender is taken
+   */
+  public int nextSender() {
+    int sender = nextSender.getAndIncrement();
+    return sender < keyCount ? sender : -1;
+  }
+
+  /**
+   * @return receivers per sender, a key never sends to itself
+   */
+  public int getReceiverCount() {
+    return Math.max(0, keyCount - 1);
+  }
+
+  /**
+   * @param k from 0 to {@link #getReceiverCount()} excluded
+   */
+  public int receiver(int sender, int k) {
+    return (sender + 1 + k) % keyCount;
+  }
+
+  public long getPairCount() {
+    return (long) keyCount * getReceiverCount();
+  }
+}
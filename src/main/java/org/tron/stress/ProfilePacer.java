@@ -0,0 +1,78 @@
+package org.tron.stress;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Plays a {@link LoadProfile} on an {@link OpenLoopScheduler}.
+ *
+ * <p>Every period the rate of the profile at the current time is set on the scheduler, which
+ * spaces the next slots accordingly: the senders keep running through every transition. A rate
+ * of 0 pauses the scheduler. Rates under {@link #MIN_RATE} are raised to it, a slot claimed at a
+ * lower rate would be due so late it would hide the next phase.
+ */
+public class ProfilePacer {
+
+  private static final Logger logger = LoggerFactory.getLogger("ProfilePacer");
+
+  public static final double MIN_RATE = 1;
+
+  private final LoadProfile profile;
+  private final OpenLoopScheduler scheduler;
+  private final Runnable onEnd;
+  private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+      r -> {
+        Thread thread = new Thread(r, "pacer");
+        thread.setDaemon(true);
+        return thread;
+      });
+  private long start;
+  private int phase = -1;
+
+  /**
+   * @param onEnd called once the profile is over, from the pacer thread
+   */
+  public ProfilePacer(LoadProfile profile, OpenLoopScheduler scheduler, Runnable onEnd) {
+    this.profile = profile;
+    this.scheduler = scheduler;
+    this.onEnd = onEnd;
+  }
+
+  public void start(long period, TimeUnit unit) {
+    start = System.nanoTime();
+    update();
+    executor.scheduleAtFixedRate(this::update, period, period, unit);
+  }
+
+  private void update() {
+    long elapsed = System.nanoTime() - start;
+    int current = profile.phaseAt(elapsed);
+    if (current != phase) {
+      phase = current;
+      if (current < profile.getPhases().size()) {
+        logger.info("phase " + (current + 1) + "/" + profile.getPhases().size() + ": "
+            + profile.getPhases().get(current));
+      }
+    }
+    if (elapsed >= profile.getDurationNanos()) {
+      logger.info("profile over");
+      executor.shutdown();
+      onEnd.run();
+      return;
+    }
+    double rate = profile.rateAt(elapsed);
+    if (rate <= 0) {
+      scheduler.pause();
+    } else {
+      scheduler.setRate(Math.max(MIN_RATE, rate));
+      scheduler.resume();
+    }
+  }
+
+  public void shutdown() {
+    executor.shutdown();
+  }
+}
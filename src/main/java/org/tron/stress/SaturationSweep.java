@@ -0,0 +1,242 @@
+package org.tron.stress;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tron.service.BroadcastEngine;
+import org.tron.stress.metrics.LatencyRecorder;
+
+/**
+ * Finds the highest rate a node sustains, the knee of its throughput/latency curve.
+ *
+ * <p>The offered rate goes up by {@code step} from {@code start}, one phase per rate, until a
+ * phase saturates: fewer successes per second than a share of the offered rate, too many errors
+ * or a p99 latency over the limit. The knee is then searched by bisection between the last
+ * sustained rate and the first saturated one, down to {@code resolution}. Every phase is a point
+ * of the curve.
+ *
+ * <p>Between two phases the scheduler is paused until every request in flight is answered, so the
+ * backlog of a saturated phase does not burst into the next one. The first seconds of a phase are
+ * a warmup and are not measured.
+ */
+public class SaturationSweep {
+
+  private static final Logger logger = LoggerFactory.getLogger("SaturationSweep");
+
+  private final OpenLoopScheduler scheduler;
+  private final BroadcastEngine engine;
+  private final double start;
+  private final double step;
+  private final double max;
+  private final double resolution;
+  private final long warmupNanos;
+  private final long phaseNanos;
+  private final Thresholds thresholds;
+  private final LatencyRecorder latency = new LatencyRecorder();
+  private final LongAdder success = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final List<Point> curve = new ArrayList<>();
+
+  /**
+   * @param start first offered rate, in transactions per second
+   * @param step added to the rate until a phase saturates
+   * @param max highest rate tried
+   * @param resolution width of the bracket where the bisection stops
+   * @param warmupNanos start of each phase that is not measured
+   * @param phaseNanos measured part of each phase
+   */
+  public SaturationSweep(OpenLoopScheduler scheduler, BroadcastEngine engine, double start,
+      double step, double max, double resolution, long warmupNanos, long phaseNanos,
+      Thresholds thresholds) {
+    if (start <= 0 || step <= 0 || max < start || resolution <= 0 || phaseNanos <= 0) {
+      throw new IllegalArgumentException("Invalid sweep bounds");
+    }
+    this.scheduler = scheduler;
+    this.engine = engine;
+    this.start = start;
+    this.step = step;
+    this.max = max;
+    this.resolution = resolution;
+    this.warmupNanos = warmupNanos;
+    this.phaseNanos = phaseNanos;
+    this.thresholds = thresholds;
+  }
+
+  /**
+   * Called by the senders for every answer, from any thread.
+   *
+   * @param latencyNanos measured from the intended send time
+   */
+  public void record(long latencyNanos, boolean result) {
+    latency.record(latencyNanos);
+    if (result) {
+      success.increment();
+    } else {
+      failed.increment();
+    }
+  }
+
+  /**
+   * Runs the phases, the senders must be running and never run out of transactions.
+   *
+   * @return the highest rate sustained, 0 if even {@code start} saturated
+   */
+  public double run() throws InterruptedException {
+    double sustained = 0;
+    double saturated = 0;
+    for (double rate = start; rate <= max; rate += step) {
+      if (measure(rate).isSaturated()) {
+        saturated = rate;
+        break;
+      }
+      sustained = rate;
+    }
+    if (saturated == 0) {
+      logger.info("not saturated up to " + (long) max + "/s");
+      return sustained;
+    }
+    if (sustained == 0) {
+      // no sustained rate to bisect from, a lower --sweep-start is needed
+      logger.info("saturated at the first rate, " + (long) start + "/s");
+      return 0;
+    }
+    double low = sustained;
+    double high = saturated;
+    while (high - low > resolution) {
+      double rate = (low + high) / 2;
+      if (measure(rate).isSaturated()) {
+        high = rate;
+      } else {
+        low = rate;
+      }
+    }
+    logger.info("knee: " + (long) low + "/s");
+    return low;
+  }
+
+  private Point measure(double rate) throws InterruptedException {
+    scheduler.pause();
+    engine.awaitCompletion();
+    scheduler.setRate(rate);
+    scheduler.resume();
+    TimeUnit.NANOSECONDS.sleep(warmupNanos);
+
+    latency.nextInterval();
+    success.reset();
+    failed.reset();
+    long begin = System.nanoTime();
+    TimeUnit.NANOSECONDS.sleep(phaseNanos);
+    long successes = success.sum();
+    long failures = failed.sum();
+    Histogram histogram = latency.nextInterval();
+    double seconds = (System.nanoTime() - begin) / 1e9;
+
+    Point point = new Point(rate, successes / seconds,
+        successes + failures == 0 ? 0 : (double) failures / (successes + failures),
+        histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99), thresholds);
+    curve.add(point);
+    logger.info(point.toString());
+    return point;
+  }
+
+  /**
+   * @return every measured phase, by offered rate
+   */
+  public List<Point> getCurve() {
+    List<Point> sorted = new ArrayList<>(curve);
+    sorted.sort(Comparator.comparingDouble(Point::getOffered));
+    return sorted;
+  }
+
+  public void writeCsv(File file) throws IOException {
+    try (PrintWriter out = new PrintWriter(file, StandardCharsets.UTF_8.name())) {
+      out.println("offered,achieved,error_rate,p50_ms,p99_ms,saturated");
+      for (Point point : getCurve()) {
+        out.println(String.format("%.0f,%.1f,%.4f,%.1f,%.1f,%b", point.offered, point.achieved,
+            point.errorRate, point.p50Micros / 1000D, point.p99Micros / 1000D, point.saturated));
+      }
+    }
+  }
+
+  /**
+   * When a phase counts as saturated.
+   */
+  public static class Thresholds {
+
+    private final double minAchievedRatio;
+    private final double maxErrorRate;
+    private final long maxP99Micros;
+
+    /**
+     * @param minAchievedRatio successes per second over offered rate, below 1
+     * @param maxErrorRate failed answers over all answers
+     * @param maxP99Micros p99 latency from the intended send time
+     */
+    public Thresholds(double minAchievedRatio, double maxErrorRate, long maxP99Micros) {
+      this.minAchievedRatio = minAchievedRatio;
+      this.maxErrorRate = maxErrorRate;
+      this.maxP99Micros = maxP99Micros;
+    }
+  }
+
+  /**
+   * One measured phase.
+   */
+  public static class Point {
+
+    private final double offered;
+    private final double achieved;
+    private final double errorRate;
+    private final long p50Micros;
+    private final long p99Micros;
+    private final boolean saturated;
+
+    Point(double offered, double achieved, double errorRate, long p50Micros, long p99Micros,
+        Thresholds thresholds) {
+      this.offered = offered;
+      this.achieved = achieved;
+      this.errorRate = errorRate;
+      this.p50Micros = p50Micros;
+      this.p99Micros = p99Micros;
+      this.saturated = achieved < offered * thresholds.minAchievedRatio
+          || errorRate > thresholds.maxErrorRate
+          || p99Micros > thresholds.maxP99Micros;
+    }
+
+    public double getOffered() {
+      return offered;
+    }
+
+    public double getAchieved() {
+      return achieved;
+    }
+
+    public double getErrorRate() {
+      return errorRate;
+    }
+
+    public long getP99Micros() {
+      return p99Micros;
+    }
+
+    public boolean isSaturated() {
+      return saturated;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("offered: %.0f/s, achieved: %.1f/s, errors: %.2f%%, p50: %.1fms, "
+              + "p99: %.1fms%s", offered, achieved, errorRate * 100, p50Micros / 1000D,
+          p99Micros / 1000D, saturated ? ", saturated" : "");
+    }
+  }
+}
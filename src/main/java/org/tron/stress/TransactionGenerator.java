@@ -0,0 +1,169 @@
+package org.tron.stress;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.tron.common.crypto.KeyTable;
+import org.tron.common.utils.TransactionBuilder;
+import org.tron.common.utils.TransactionUtils;
+import org.tron.protos.Protocol.Transaction;
+import org.tron.stress.metrics.Counter;
+import org.tron.stress.metrics.MetricsRegistry;
+
+/**
+ * Builds and signs transactions while they are being sent, instead of replaying a corpus.
+ *
+ * <p>Every producer thread fills its own {@link TransactionRing}; sender threads drain their ring
+ * first and steal from the others when it is empty. Signing runs ahead of the sends by at most
+ * the ring capacity, so a soak run can last as long as needed with a constant heap. A ring that
+ * stays empty means signing, not the node, limits the rate.
+ *
+ * <p>The contract of each transaction comes from a {@link WorkloadMix}, plain transfers by
+ * default.
+ */
+public class TransactionGenerator {
+
+  private static final long EMPTY_PARK_NANOS = 50_000;
+
+  private final KeyTable keys;
+  private final WorkloadMix mix;
+  private final long count;
+  private final TransactionBuilder builder;
+  private final TransactionRing[] rings;
+  private final LongAdder generated = new LongAdder();
+  private final Map<ContractGenerator, Counter> generatedByType = new IdentityHashMap<>();
+
+  /**
+   * @param receivers empty to have every key send to the next one
+   * @param count transactions to generate, 0 or less for an endless run
+   */
+  public TransactionGenerator(KeyTable keys, List<byte[]> receivers, long amount, long count,
+      TransactionBuilder builder, int producers, int ringCapacity) {
+    this(keys, WorkloadMix.of(ContractGenerator.transfer(receivers, amount)), count, builder,
+        producers, ringCapacity);
+  }
+
+  /**
+   * @param count transactions to generate, 0 or less for an endless run
+   */
+  public TransactionGenerator(KeyTable keys, WorkloadMix mix, long count,
+      TransactionBuilder builder, int producers, int ringCapacity) {
+    this.keys = keys;
+    this.mix = mix;
+    this.count = count;
+    for (ContractGenerator generator : mix.getGenerators()) {
+      generatedByType.put(generator, MetricsRegistry.getDefault()
+          .counter("transactions_generated_total", "contract", generator.getType().name()));
+    }
+    this.builder = builder;
+    this.rings = new TransactionRing[producers];
+    for (int i = 0; i < producers; i++) {
+      rings[i] = new TransactionRing(ringCapacity);
+    }
+  }
+
+  public void start() {
+    for (int i = 0; i < rings.length; i++) {
+      int producer = i;
+      Thread thread = new Thread(() -> produce(producer), "generator-" + i);
+      thread.setDaemon(true);
+      thread.start();
+    }
+  }
+
+  private void produce(int producer) {
+    TransactionRing ring = rings[producer];
+    KeyTable.Signer signer = keys.newSigner();
+    for (long n = producer; count <= 0 || n < count; n += rings.length) {
+      int key = (int) (n % keys.size());
+      ContractGenerator generator = mix.select(n, keys.size());
+      Transaction transaction = TransactionUtils.setTimestamp(
+          builder.createTransaction(generator.create(n, key, keys), generator.getType()));
+      ring.put(signer.sign(key, transaction));
+      generated.increment();
+      generatedByType.get(generator).increment();
+    }
+    ring.close();
+  }
+
+  /**
+   * Iterator for one sender thread, blocks until a transaction is ready or every producer is
+   * done.
+   */
+  public Iterator<Transaction> iterator(int consumer) {
+    return new Iterator<Transaction>() {
+      private Transaction next;
+
+      @Override
+      public boolean hasNext() {
+        while (next == null) {
+          boolean done = isDone();
+          next = poll(consumer);
+          if (next == null) {
+            if (done) {
+              return false;
+            }
+            LockSupport.parkNanos(EMPTY_PARK_NANOS);
+          }
+        }
+        return true;
+      }
+
+      @Override
+      public Transaction next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        Transaction transaction = next;
+        next = null;
+        return transaction;
+      }
+    };
+  }
+
+  private Transaction poll(int consumer) {
+    for (int i = 0; i < rings.length; i++) {
+      Transaction transaction = rings[(consumer + i) % rings.length].poll();
+      if (transaction != null) {
+        return transaction;
+      }
+    }
+    return null;
+  }
+
+  private boolean isDone() {
+    for (TransactionRing ring : rings) {
+      if (!ring.isDone()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public long getGenerated() {
+    return generated.sum();
+  }
+
+  /**
+   * @return transactions signed and waiting to be sent
+   */
+  public int getOccupancy() {
+    int occupancy = 0;
+    for (TransactionRing ring : rings) {
+      occupancy += ring.size();
+    }
+    return occupancy;
+  }
+
+  public int getCapacity() {
+    return rings.length * rings[0].capacity();
+  }
+
+  public String report() {
+    return "generated: " + getGenerated() + ", ring: " + getOccupancy() + "/" + getCapacity();
+  }
+}
@@ -0,0 +1,88 @@
+package org.tron.stress;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import org.tron.protos.Protocol.Transaction;
+
+/**
+ * Bounded single producer, multi consumer queue of signed transactions, lock free.
+ *
+ * <p>The producer publishes a slot by advancing {@code tail}, consumers claim one by moving
+ * {@code head} with a compare and set. A consumer reads its slot before claiming it, so the
+ * producer can reuse a slot as soon as it is claimed. Slots are allocated once and never
+ * cleared: the ring holds at most {@code capacity} transactions whatever the run length.
+ */
+public class TransactionRing {
+
+  private static final long FULL_PARK_NANOS = 10_000;
+
+  private final AtomicReferenceArray<Transaction> slots;
+  private final int mask;
+  private final AtomicLong head = new AtomicLong();
+  private volatile long tail;
+  private volatile boolean closed;
+
+  /**
+   * @param capacity rounded up to a power of two
+   */
+  public TransactionRing(int capacity) {
+    int size = 1;
+    while (size < capacity) {
+      size <<= 1;
+    }
+    this.slots = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+  }
+
+  /**
+   * Waits while the ring is full. Must always be called from the same thread.
+   */
+  public void put(Transaction transaction) {
+    long position = tail;
+    while (position - head.get() > mask) {
+      LockSupport.parkNanos(FULL_PARK_NANOS);
+    }
+    slots.lazySet((int) position & mask, transaction);
+    // the volatile write publishes the slot
+    tail = position + 1;
+  }
+
+  /**
+   * @return the oldest transaction, null if the ring is empty
+   */
+  public Transaction poll() {
+    while (true) {
+      long position = head.get();
+      if (position >= tail) {
+        return null;
+      }
+      Transaction transaction = slots.get((int) position & mask);
+      if (head.compareAndSet(position, position + 1)) {
+        return transaction;
+      }
+    }
+  }
+
+  /**
+   * Tells the consumers nothing more will be put.
+   */
+  public void close() {
+    closed = true;
+  }
+
+  /**
+   * @return true once closed and drained
+   */
+  public boolean isDone() {
+    return closed && head.get() >= tail;
+  }
+
+  public int size() {
+    return (int) Math.max(0, tail - head.get());
+  }
+
+  public int capacity() {
+    return mask + 1;
+  }
+}
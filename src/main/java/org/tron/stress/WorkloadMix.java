@@ -0,0 +1,115 @@
+package org.tron.stress;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Weighted choice of the {@link ContractGenerator} building each transaction.
+ *
+ * <p>The choice is a fixed table walked by sequence number, filled by smooth weighted round
+ * robin: with {@code transfer:70,asset:20,vote:10} every ten transactions hold seven transfers,
+ * two asset transfers and one vote, interleaved instead of in bursts. Every contract type then
+ * shares the pacing of the run and sees the same load over time.
+ */
+public class WorkloadMix {
+
+  private final List<ContractGenerator> generators;
+  private final List<Integer> weights;
+  private final ContractGenerator[] table;
+
+  /**
+   * @param weights positive, only their ratios matter
+   */
+  public WorkloadMix(List<ContractGenerator> generators, List<Integer> weights) {
+    if (generators.isEmpty() || generators.size() != weights.size()) {
+      throw new IllegalArgumentException("One weight per generator is required");
+    }
+    int gcd = 0;
+    for (int weight : weights) {
+      if (weight <= 0) {
+        throw new IllegalArgumentException("Weights must be positive: " + weights);
+      }
+      gcd = BigInteger.valueOf(gcd).gcd(BigInteger.valueOf(weight)).intValue();
+    }
+    int total = 0;
+    for (int weight : weights) {
+      total += weight / gcd;
+    }
+    this.generators = Collections.unmodifiableList(new ArrayList<>(generators));
+    this.weights = Collections.unmodifiableList(new ArrayList<>(weights));
+    this.table = new ContractGenerator[total];
+    int[] current = new int[generators.size()];
+    for (int slot = 0; slot < total; slot++) {
+      int best = 0;
+      for (int i = 0; i < current.length; i++) {
+        current[i] += weights.get(i) / gcd;
+        if (current[i] > current[best]) {
+          best = i;
+        }
+      }
+      current[best] -= total;
+      table[slot] = generators.get(best);
+    }
+  }
+
+  public static WorkloadMix of(ContractGenerator generator) {
+    return new WorkloadMix(Collections.singletonList(generator), Collections.singletonList(1));
+  }
+
+  /**
+   * Parses {@code name:weight,name:weight...}, a name without weight counts 1.
+   *
+   * @param generators generator of each name, null for an unknown name
+   */
+  public static WorkloadMix parse(String spec, Function<String, ContractGenerator> generators) {
+    List<ContractGenerator> chosen = new ArrayList<>();
+    List<Integer> weights = new ArrayList<>();
+    for (String entry : spec.split(",")) {
+      String[] parts = entry.trim().split(":", 2);
+      ContractGenerator generator = generators.apply(parts[0].trim());
+      if (generator == null) {
+        throw new IllegalArgumentException("Unknown contract in mix: " + parts[0]);
+      }
+      chosen.add(generator);
+      weights.add(parts.length == 1 ? 1 : Integer.parseInt(parts[1].trim()));
+    }
+    return new WorkloadMix(chosen, weights);
+  }
+
+  /**
+   * @return the generator of transaction {@code n}
+   */
+  public ContractGenerator select(long n) {
+    return table[(int) (n % table.length)];
+  }
+
+  /**
+   * Generator of transaction {@code n} when its sender is {@code n % senders}. Every sender walks
+   * the whole table, one slot further each round, so a sender count sharing a divisor with the
+   * table length does not tie a sender to a few contract types.
+   */
+  public ContractGenerator select(long n, int senders) {
+    return select(n / senders + n % senders);
+  }
+
+  int getTableLength() {
+    return table.length;
+  }
+
+  public List<ContractGenerator> getGenerators() {
+    return generators;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < generators.size(); i++) {
+      builder.append(i == 0 ? "" : ",").append(generators.get(i).getType().name()).append(':')
+          .append(weights.get(i));
+    }
+    return builder.toString();
+  }
+}
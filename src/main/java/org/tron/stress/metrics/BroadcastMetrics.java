@@ -0,0 +1,98 @@
+package org.tron.stress.metrics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.tron.api.GrpcAPI.Return;
+import org.tron.api.GrpcAPI.Return.response_code;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+import org.tron.service.ChannelPool.Node;
+
+/**
+ * Broadcast results in a {@link MetricsRegistry}: {@code broadcast_responses_total} by node,
+ * contract type and response code, {@code broadcast_latency_seconds} by node.
+ *
+ * <p>Counters are created on first use of a combination and kept in flat arrays, so only the
+ * combinations a run actually hits are exported and recording allocates nothing.
+ */
+public class BroadcastMetrics {
+
+  public static final String RESPONSES = "broadcast_responses_total";
+  public static final String LATENCY = "broadcast_latency_seconds";
+
+  private static final response_code[] CODES = response_code.values();
+  private static final ContractType[] TYPES = ContractType.values();
+  /**
+   * Code slot of the calls that got no answer, contract slot of unknown types.
+   */
+  private static final int RPC_FAILURE = CODES.length;
+  private static final int UNKNOWN_TYPE = TYPES.length;
+  /**
+   * Contract type number to slot, the lookup runs for every result.
+   */
+  private static final int[] TYPE_SLOTS;
+
+  static {
+    int maxNumber = 0;
+    for (ContractType type : TYPES) {
+      if (type != ContractType.UNRECOGNIZED) {
+        maxNumber = Math.max(maxNumber, type.getNumber());
+      }
+    }
+    TYPE_SLOTS = new int[maxNumber + 1];
+    Arrays.fill(TYPE_SLOTS, UNKNOWN_TYPE);
+    for (int i = 0; i < TYPES.length; i++) {
+      if (TYPES[i] != ContractType.UNRECOGNIZED) {
+        TYPE_SLOTS[TYPES[i].getNumber()] = i;
+      }
+    }
+  }
+
+  private final MetricsRegistry registry;
+  private final List<Node> nodes;
+  private final AtomicReferenceArray<Counter> responses;
+  private final LatencyRecorder[] latencies;
+
+  public BroadcastMetrics(MetricsRegistry registry, List<Node> nodes) {
+    this.registry = registry;
+    this.nodes = nodes;
+    this.responses = new AtomicReferenceArray<>(
+        nodes.size() * (TYPES.length + 1) * (CODES.length + 1));
+    this.latencies = new LatencyRecorder[nodes.size()];
+    for (Node node : nodes) {
+      latencies[node.getId()] = registry.histogram(LATENCY, "node", node.getTarget());
+    }
+  }
+
+  /**
+   * @param contractType {@code ContractType} number, -1 if unknown
+   */
+  public void record(Node node, int contractType, Return result, long latencyNanos) {
+    counter(node.getId(), contractType, result.getCode().ordinal()).increment();
+    latencies[node.getId()].record(latencyNanos);
+  }
+
+  public void recordFailure(Node node, int contractType, long latencyNanos) {
+    counter(node.getId(), contractType, RPC_FAILURE).increment();
+    latencies[node.getId()].record(latencyNanos);
+  }
+
+  private Counter counter(int node, int contractType, int code) {
+    int type = typeSlot(contractType);
+    int slot = (node * (TYPES.length + 1) + type) * (CODES.length + 1) + code;
+    Counter counter = responses.get(slot);
+    if (counter == null) {
+      // the registry returns the same counter to racing threads
+      counter = registry.counter(RESPONSES, "node", nodes.get(node).getTarget(),
+          "contract", type == UNKNOWN_TYPE ? "UNKNOWN" : TYPES[type].name(),
+          "code", code == RPC_FAILURE ? "RPC_FAILURE" : CODES[code].name());
+      responses.lazySet(slot, counter);
+    }
+    return counter;
+  }
+
+  private static int typeSlot(int contractType) {
+    return contractType >= 0 && contractType < TYPE_SLOTS.length ? TYPE_SLOTS[contractType]
+        : UNKNOWN_TYPE;
+  }
+}
@@ -0,0 +1,24 @@
+package org.tron.stress.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic count, striped so that sender threads do not contend on it. Handles are looked up
+ * once from the {@link MetricsRegistry} and kept, incrementing allocates nothing.
+ */
+public class Counter {
+
+  private final LongAdder count = new LongAdder();
+
+  public void increment() {
+    count.increment();
+  }
+
+  public void add(long n) {
+    count.add(n);
+  }
+
+  public long get() {
+    return count.sum();
+  }
+}
@@ -0,0 +1,72 @@
+package org.tron.stress.metrics;
+
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latency histogram safe to record from any thread, read per interval by one reporter.
+ *
+ * <p>Values are kept in microseconds with 3 significant digits, anything above ten minutes is
+ * recorded as ten minutes.
+ */
+public class LatencyRecorder {
+
+  private static final long HIGHEST = TimeUnit.MINUTES.toMicros(10);
+
+  private final Recorder recorder = new Recorder(HIGHEST, 3);
+  private final Histogram total = new Histogram(HIGHEST, 3);
+  /**
+   * Flushed but not yet returned by {@link #nextInterval()}.
+   */
+  private final Histogram pending = new Histogram(HIGHEST, 3);
+  private Histogram flushed;
+  private Histogram interval;
+
+  public void record(long latencyNanos) {
+    recorder.recordValue(Math.min(Math.max(0, latencyNanos / 1000), HIGHEST));
+  }
+
+  private void flush() {
+    flushed = recorder.getIntervalHistogram(flushed);
+    total.add(flushed);
+    pending.add(flushed);
+  }
+
+  /**
+   * @return values recorded since the previous call, the instance is reused by the next call
+   */
+  public synchronized Histogram nextInterval() {
+    flush();
+    if (interval == null) {
+      interval = new Histogram(HIGHEST, 3);
+    } else {
+      interval.reset();
+    }
+    interval.add(pending);
+    pending.reset();
+    return interval;
+  }
+
+  /**
+   * @return every value recorded so far, reading it does not change the intervals
+   */
+  public synchronized Histogram getTotal() {
+    flush();
+    return total.copy();
+  }
+
+  public synchronized long getTotalCount() {
+    flush();
+    return total.getTotalCount();
+  }
+
+  public static String format(Histogram histogram) {
+    return String.format("count: %d, p50: %.1fms, p99: %.1fms, p99.9: %.1fms, max: %.1fms",
+        histogram.getTotalCount(),
+        histogram.getValueAtPercentile(50) / 1000D,
+        histogram.getValueAtPercentile(99) / 1000D,
+        histogram.getValueAtPercentile(99.9) / 1000D,
+        histogram.getMaxValue() / 1000D);
+  }
+}
@@ -0,0 +1,108 @@
+package org.tron.stress.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import org.HdrHistogram.Histogram;
+import org.tron.stress.metrics.MetricsRegistry.Metric;
+
+/**
+ * Read only view of the registry over JMX, one attribute per metric, for jconsole or any JMX
+ * collector. Histograms give their count and their p50, p99 and max in microseconds over the
+ * whole run.
+ */
+public class MetricsMBean implements DynamicMBean {
+
+  public static final String OBJECT_NAME = "org.tron.stress:type=Metrics";
+
+  private final MetricsRegistry registry;
+
+  public MetricsMBean(MetricsRegistry registry) {
+    this.registry = registry;
+  }
+
+  /**
+   * Registers the registry with the platform MBean server.
+   */
+  public static void register(MetricsRegistry registry) throws JMException {
+    ObjectName name = new ObjectName(OBJECT_NAME);
+    if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsMBean(registry), name);
+    }
+  }
+
+  private Map<String, Long> values() {
+    Map<String, Long> values = new LinkedHashMap<>();
+    for (Metric metric : registry.getMetrics()) {
+      if (!metric.isHistogram()) {
+        values.put(metric.toString(), metric.getValue());
+        continue;
+      }
+      Histogram histogram = metric.getHistogram().getTotal();
+      values.put(metric + ".count", histogram.getTotalCount());
+      values.put(metric + ".p50", histogram.getValueAtPercentile(50));
+      values.put(metric + ".p99", histogram.getValueAtPercentile(99));
+      values.put(metric + ".max", histogram.getMaxValue());
+    }
+    return values;
+  }
+
+  @Override
+  public Object getAttribute(String attribute) throws AttributeNotFoundException {
+    Long value = values().get(attribute);
+    if (value == null) {
+      throw new AttributeNotFoundException(attribute);
+    }
+    return value;
+  }
+
+  @Override
+  public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+    throw new AttributeNotFoundException("Metrics are read only");
+  }
+
+  @Override
+  public AttributeList getAttributes(String[] attributes) {
+    Map<String, Long> values = values();
+    AttributeList list = new AttributeList();
+    for (String attribute : attributes) {
+      if (values.containsKey(attribute)) {
+        list.add(new Attribute(attribute, values.get(attribute)));
+      }
+    }
+    return list;
+  }
+
+  @Override
+  public AttributeList setAttributes(AttributeList attributes) {
+    return new AttributeList();
+  }
+
+  @Override
+  public Object invoke(String actionName, Object[] params, String[] signature)
+      throws ReflectionException {
+    // no operation, attributes only
+    throw new ReflectionException(new NoSuchMethodException(actionName));
+  }
+
+  @Override
+  public MBeanInfo getMBeanInfo() {
+    List<MBeanAttributeInfo> attributes = new ArrayList<>();
+    for (String name : values().keySet()) {
+      attributes.add(new MBeanAttributeInfo(name, Long.class.getName(), name, true, false, false));
+    }
+    return new MBeanInfo(getClass().getName(), "Stress run metrics",
+        attributes.toArray(new MBeanAttributeInfo[0]), null, null, null);
+  }
+}
@@ -0,0 +1,127 @@
+package org.tron.stress.metrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Named counters, gauges and latency histograms of a run, each with its own label values, read by
+ * the exporters: {@link PrometheusEndpoint}, {@link MetricsMBean} and {@link TimeSeriesWriter}.
+ *
+ * <p>Lookups build the label string and may allocate, so they are made once and the handles
+ * kept; recording on a handle is lock and allocation free. Labels are given as name, value
+ * pairs.
+ */
+public class MetricsRegistry {
+
+  private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+  private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+  /**
+   * @return the registry of the process, the one exported by the programs
+   */
+  public static MetricsRegistry getDefault() {
+    return DEFAULT;
+  }
+
+  public Counter counter(String name, String... labels) {
+    return (Counter) metrics.computeIfAbsent(key(name, labels),
+        k -> new Metric(name, labels, new Counter())).source;
+  }
+
+  public LatencyRecorder histogram(String name, String... labels) {
+    return (LatencyRecorder) metrics.computeIfAbsent(key(name, labels),
+        k -> new Metric(name, labels, new LatencyRecorder())).source;
+  }
+
+  /**
+   * @param value read by the exporters only, from their own threads
+   */
+  public void gauge(String name, LongSupplier value, String... labels) {
+    metrics.put(key(name, labels), new Metric(name, labels, value));
+  }
+
+  public Collection<Metric> getMetrics() {
+    return Collections.unmodifiableCollection(metrics.values());
+  }
+
+  private static String key(String name, String... labels) {
+    return name + "{" + Metric.formatLabels(labels) + "}";
+  }
+
+  /**
+   * A metric and its labels. The source is a {@link Counter}, a {@link LatencyRecorder} or a
+   * {@link LongSupplier} gauge.
+   */
+  public static class Metric {
+
+    private final String name;
+    private final String labels;
+    private final Object source;
+
+    Metric(String name, String[] labels, Object source) {
+      if (labels.length % 2 != 0) {
+        throw new IllegalArgumentException("Labels are name, value pairs: " + name);
+      }
+      this.name = name;
+      this.labels = formatLabels(labels);
+      this.source = source;
+    }
+
+    static String formatLabels(String[] labels) {
+      StringBuilder builder = new StringBuilder();
+      for (int i = 0; i + 1 < labels.length; i += 2) {
+        if (builder.length() > 0) {
+          builder.append(',');
+        }
+        builder.append(labels[i]).append("=\"")
+            .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+      }
+      return builder.toString();
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * @return {@code a="1",b="2"}, empty without labels
+     */
+    public String getLabels() {
+      return labels;
+    }
+
+    public boolean isCounter() {
+      return source instanceof Counter;
+    }
+
+    public boolean isHistogram() {
+      return source instanceof LatencyRecorder;
+    }
+
+    public LatencyRecorder getHistogram() {
+      return (LatencyRecorder) source;
+    }
+
+    /**
+     * @return the count of a counter, the value of a gauge, the total count of a histogram
+     */
+    public long getValue() {
+      if (source instanceof Counter) {
+        return ((Counter) source).get();
+      }
+      if (source instanceof LongSupplier) {
+        return ((LongSupplier) source).getAsLong();
+      }
+      return ((LatencyRecorder) source).getTotalCount();
+    }
+
+    @Override
+    public String toString() {
+      return labels.isEmpty() ? name : name + "{" + labels + "}";
+    }
+  }
+}
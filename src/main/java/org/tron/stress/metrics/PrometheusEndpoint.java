@@ -0,0 +1,93 @@
+package org.tron.stress.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import org.HdrHistogram.Histogram;
+import org.tron.stress.metrics.MetricsRegistry.Metric;
+
+/**
+ * Serves the registry at {@code /metrics} in the Prometheus text format, on the loopback
+ * interface only. Histograms are exported as summaries in seconds, with the 0.5, 0.99 and 0.999
+ * quantiles over the whole run.
+ */
+public class PrometheusEndpoint {
+
+  private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+
+  private final MetricsRegistry registry;
+  private final HttpServer server;
+
+  public PrometheusEndpoint(MetricsRegistry registry, int port) throws IOException {
+    this.registry = registry;
+    this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+    server.createContext("/metrics", this::handle);
+    server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+      Thread thread = new Thread(r, "prometheus");
+      thread.setDaemon(true);
+      return thread;
+    }));
+  }
+
+  public void start() {
+    server.start();
+  }
+
+  public void stop() {
+    server.stop(0);
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4");
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  String scrape() {
+    StringBuilder text = new StringBuilder();
+    Set<String> typed = new HashSet<>();
+    for (Metric metric : registry.getMetrics()) {
+      String name = metric.getName();
+      if (typed.add(name)) {
+        text.append("# TYPE ").append(name).append(' ')
+            .append(metric.isCounter() ? "counter" : metric.isHistogram() ? "summary" : "gauge")
+            .append('\n');
+      }
+      if (!metric.isHistogram()) {
+        sample(text, name, metric.getLabels(), null, metric.getValue());
+        continue;
+      }
+      Histogram histogram = metric.getHistogram().getTotal();
+      for (double quantile : QUANTILES) {
+        sample(text, name, metric.getLabels(), "quantile=\"" + quantile + "\"",
+            histogram.getValueAtPercentile(quantile * 100) / 1e6);
+      }
+      sample(text, name + "_sum", metric.getLabels(), null,
+          histogram.getMean() * histogram.getTotalCount() / 1e6);
+      sample(text, name + "_count", metric.getLabels(), null, histogram.getTotalCount());
+    }
+    return text.toString();
+  }
+
+  private static void sample(StringBuilder text, String name, String labels, String extra,
+      Object value) {
+    text.append(name);
+    if (!labels.isEmpty() || extra != null) {
+      text.append('{').append(labels);
+      if (extra != null) {
+        text.append(labels.isEmpty() ? "" : ",").append(extra);
+      }
+      text.append('}');
+    }
+    text.append(' ').append(value).append('\n');
+  }
+}
@@ -0,0 +1,112 @@
+package org.tron.stress.metrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tron.api.GrpcAPI.Return;
+import org.tron.api.GrpcAPI.Return.response_code;
+
+/**
+ * Broadcast results counted per {@code Return.response_code}, plus the calls that got no answer.
+ *
+ * <p>Recording is a counter increment, nothing is printed from the send path. The first error
+ * message of every code is kept as a sample, the reporter logs the samples once per interval, so
+ * a node refusing everything costs one log line per code and interval.
+ */
+public class ResponseCounter {
+
+  private static final Logger logger = LoggerFactory.getLogger("ResponseCounter");
+  private static final response_code[] CODES = response_code.values();
+  /**
+   * Slot of the calls that failed before the node answered: deadline, connection refused...
+   */
+  private static final int RPC_FAILURE = CODES.length;
+
+  private final LongAdder[] counts = new LongAdder[CODES.length + 1];
+  private final long[] previous = new long[CODES.length + 1];
+  private final AtomicReferenceArray<String> samples = new AtomicReferenceArray<>(
+      CODES.length + 1);
+  private long previousNanos = System.nanoTime();
+
+  public ResponseCounter() {
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = new LongAdder();
+    }
+  }
+
+  public void record(Return result) {
+    int slot = result.getCode().ordinal();
+    counts[slot].increment();
+    if (!result.getResult() && samples.get(slot) == null) {
+      samples.compareAndSet(slot, null, result.getMessage().toStringUtf8());
+    }
+  }
+
+  public void recordFailure(Throwable t) {
+    counts[RPC_FAILURE].increment();
+    if (samples.get(RPC_FAILURE) == null) {
+      samples.compareAndSet(RPC_FAILURE, null, String.valueOf(t));
+    }
+  }
+
+  public long getCount(response_code code) {
+    return counts[code.ordinal()].sum();
+  }
+
+  public long getFailures() {
+    return counts[RPC_FAILURE].sum();
+  }
+
+  public long getTotal() {
+    long total = 0;
+    for (LongAdder count : counts) {
+      total += count.sum();
+    }
+    return total;
+  }
+
+  /**
+   * Rates since the previous call, and logs the error samples taken meanwhile. Called by a
+   * single reporter.
+   */
+  public synchronized String nextInterval() {
+    long now = System.nanoTime();
+    double seconds = Math.max(1, now - previousNanos) / 1e9;
+    previousNanos = now;
+    StringBuilder report = new StringBuilder();
+    for (int i = 0; i < counts.length; i++) {
+      long count = counts[i].sum();
+      long delta = count - previous[i];
+      previous[i] = count;
+      if (delta > 0) {
+        report.append(report.length() == 0 ? "" : ", ").append(name(i)).append(": ")
+            .append(String.format("%.1f/s", delta / seconds));
+      }
+      String sample = samples.getAndSet(i, null);
+      if (sample != null) {
+        logger.warn(name(i) + " (" + delta + " this interval): " + sample);
+      }
+    }
+    return report.length() == 0 ? "no response" : report.toString();
+  }
+
+  /**
+   * @return every count since the start
+   */
+  public String totalReport() {
+    StringBuilder report = new StringBuilder();
+    for (int i = 0; i < counts.length; i++) {
+      long count = counts[i].sum();
+      if (count > 0) {
+        report.append(report.length() == 0 ? "" : ", ").append(name(i)).append(": ")
+            .append(count);
+      }
+    }
+    return report.length() == 0 ? "no response" : report.toString();
+  }
+
+  private static String name(int slot) {
+    return slot == RPC_FAILURE ? "RPC_FAILURE" : CODES[slot].name();
+  }
+}
@@ -0,0 +1,83 @@
+package org.tron.stress.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.tron.stress.metrics.MetricsRegistry.Metric;
+
+/**
+ * Writes the registry once per second as CSV rows {@code time,metric,labels,value}, ready to chart
+ * offered against achieved rates second by second.
+ *
+ * <p>Counters are written as their increase over the second, so a row is a rate; gauges as their
+ * value; histograms as {@code _count}, {@code _p50}, {@code _p99} and {@code _max} rows in
+ * microseconds, over the second only. Seconds without any change of a counter are skipped.
+ */
+public class TimeSeriesWriter {
+
+  private final MetricsRegistry registry;
+  private final PrintWriter out;
+  private final Map<Metric, Long> previous = new HashMap<>();
+  private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+      r -> {
+        Thread thread = new Thread(r, "time-series");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  public TimeSeriesWriter(MetricsRegistry registry, File file) throws IOException {
+    this.registry = registry;
+    this.out = new PrintWriter(file, "UTF-8");
+    out.println("time,metric,labels,value");
+  }
+
+  public void start() {
+    executor.scheduleAtFixedRate(this::write, 1, 1, TimeUnit.SECONDS);
+  }
+
+  private synchronized void write() {
+    long time = System.currentTimeMillis() / 1000;
+    for (Metric metric : registry.getMetrics()) {
+      if (metric.isHistogram()) {
+        Histogram interval = metric.getHistogram().nextInterval();
+        if (interval.getTotalCount() > 0) {
+          row(time, metric.getName() + "_count", metric, interval.getTotalCount());
+          row(time, metric.getName() + "_p50", metric, interval.getValueAtPercentile(50));
+          row(time, metric.getName() + "_p99", metric, interval.getValueAtPercentile(99));
+          row(time, metric.getName() + "_max", metric, interval.getMaxValue());
+        }
+      } else if (metric.isCounter()) {
+        long value = metric.getValue();
+        Long last = previous.put(metric, value);
+        long delta = value - (last == null ? 0 : last);
+        if (delta != 0) {
+          row(time, metric.getName(), metric, delta);
+        }
+      } else {
+        row(time, metric.getName(), metric, metric.getValue());
+      }
+    }
+    out.flush();
+  }
+
+  private void row(long time, String name, Metric metric, long value) {
+    // labels are quoted for the CSV, their own quotes doubled
+    out.println(time + "," + name + ",\"" + metric.getLabels().replace("\"", "\"\"") + "\","
+        + value);
+  }
+
+  /**
+   * Writes the last second and closes the file.
+   */
+  public synchronized void close() {
+    executor.shutdown();
+    write();
+    out.close();
+  }
+}
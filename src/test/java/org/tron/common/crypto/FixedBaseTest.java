@@ -0,0 +1,82 @@
+package org.tron.common.crypto;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.security.SignatureException;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Test;
+import org.spongycastle.crypto.digests.SHA256Digest;
+import org.spongycastle.crypto.params.ECPrivateKeyParameters;
+import org.spongycastle.crypto.signers.ECDSASigner;
+import org.spongycastle.crypto.signers.HMacDSAKCalculator;
+import org.tron.common.crypto.ECKey.ECDSASignature;
+
+public class FixedBaseTest {
+
+  private static final int KEYS = 64;
+
+  @Test
+  public void testMultiplyG() {
+    Random random = new Random(1);
+    for (int i = 0; i < KEYS; i++) {
+      BigInteger k = new BigInteger(256, random).mod(ECKey.CURVE.getN());
+      assertEquals(ECKey.CURVE.getG().multiply(k).normalize(), FixedBase.multiplyG(k));
+    }
+  }
+
+  @Test
+  public void testSignMatchesECDSASigner() {
+    Random random = new Random(2);
+    HMacDSAKCalculator kCalculator = new HMacDSAKCalculator(new SHA256Digest());
+    for (int i = 0; i < KEYS; i++) {
+      ECKey key = new ECKey();
+      byte[] hash = new byte[32];
+      random.nextBytes(hash);
+
+      // the signer ECKey used before the comb, canonical s
+      ECDSASigner signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
+      signer.init(true, new ECPrivateKeyParameters(key.getPrivKey(), ECKey.CURVE));
+      BigInteger[] components = signer.generateSignature(hash);
+      ECDSASignature expected = new ECDSASignature(components[0], components[1])
+          .toCanonicalised();
+
+      ECDSASignature signature = FixedBase.sign(key.getPrivKey(), hash, kCalculator);
+      assertEquals(expected, signature);
+      assertEquals(key.sign(hash), signature);
+    }
+  }
+
+  @Test
+  public void testSignRecoversSigner() throws SignatureException {
+    Random random = new Random(3);
+    HMacDSAKCalculator kCalculator = new HMacDSAKCalculator(new SHA256Digest());
+    for (int i = 0; i < KEYS; i++) {
+      ECKey key = new ECKey();
+      byte[] hash = new byte[32];
+      random.nextBytes(hash);
+
+      ECDSASignature signature = FixedBase.sign(key.getPrivKey(), hash, kCalculator);
+      assertArrayEquals(key.getAddress(), ECKey.signatureToAddress(hash, signature));
+    }
+  }
+
+  @Test
+  public void testKeyTableSigner() throws SignatureException {
+    Random random = new Random(4);
+    KeyTable keys = KeyTable.of(IntStream.range(0, KEYS).mapToObj(i -> new ECKey())
+        .collect(Collectors.toList()));
+    KeyTable.Signer signer = keys.newSigner();
+    for (int i = 0; i < KEYS; i++) {
+      byte[] hash = new byte[32];
+      random.nextBytes(hash);
+
+      ECDSASignature signature = signer.sign(i, hash);
+      assertEquals(keys.toECKey(i).sign(hash), signature);
+      assertArrayEquals(keys.getAddress(i), ECKey.signatureToAddress(hash, signature));
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package org.tron.common.journal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ResultJournalTest {
+
+  private static final int THREADS = 4;
+  private static final int RECORDS = 3000;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testRoundTrip() throws IOException, InterruptedException {
+    File file = folder.newFile();
+    // every thread holds its own chunk, so each may leave one partly filled
+    long capacity = THREADS * (RECORDS + JournalFormat.CHUNK_RECORDS);
+    try (ResultJournal journal = new ResultJournal(file, capacity)) {
+      ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+      for (int t = 0; t < THREADS; t++) {
+        int sender = t;
+        executor.execute(() -> {
+          for (int i = 0; i < RECORDS; i++) {
+            long intended = System.nanoTime();
+            int code = i % 2 == 0 ? 0 : ResultJournal.RPC_FAILURE;
+            journal.record(txid(sender, i), sender, intended, intended + 1_000,
+                intended + 5_000, sender + 1, code);
+          }
+        });
+      }
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+      assertEquals(0, journal.getDropped());
+    }
+
+    List<String> errors = new ArrayList<>();
+    long[] perSender = new long[THREADS];
+    try (JournalReader reader = new JournalReader(file)) {
+      assertTrue(reader.isClosed());
+      assertEquals(0, reader.getDropped());
+      for (long chunk = 0; chunk < reader.getChunks(); chunk++) {
+        reader.read(chunk, record -> {
+          int sender = record.getSender();
+          int i = (int) perSender[sender]++;
+          if (!Arrays.equals(txid(sender, i), record.getTxid())
+              || record.getNode() != sender + 1
+              || record.getCode() != (i % 2 == 0 ? 0 : ResultJournal.RPC_FAILURE)
+              || record.getSent() - record.getIntended() != 1_000
+              || record.getAck() - record.getIntended() != 5_000) {
+            errors.add("sender " + sender + ", record " + i);
+          }
+        });
+      }
+    }
+    assertEquals(new ArrayList<>(), errors);
+    assertArrayEquals(new long[]{RECORDS, RECORDS, RECORDS, RECORDS}, perSender);
+  }
+
+  @Test
+  public void testDropsWhenFull() throws IOException {
+    File file = folder.newFile();
+    try (ResultJournal journal = new ResultJournal(file, 1)) {
+      // one chunk, the records past it are counted
+      for (int i = 0; i < JournalFormat.CHUNK_RECORDS + 10; i++) {
+        journal.record(txid(0, i), 0, 1, 2, 3, 0, 0);
+      }
+      assertEquals(10, journal.getDropped());
+    }
+    try (JournalReader reader = new JournalReader(file)) {
+      assertEquals(1, reader.getChunks());
+      assertEquals(10, reader.getDropped());
+    }
+  }
+
+  @Test
+  public void testReadNeverClosed() throws IOException, InterruptedException {
+    File file = folder.newFile();
+    // like a run killed before close: the writer is left open, the header has no counts
+    ResultJournal journal = new ResultJournal(file, 4 * JournalFormat.CHUNK_RECORDS);
+    Thread other = new Thread(() -> journal.record(txid(1, 0), 1, 1, 2, 3, 0, 0));
+    other.start();
+    other.join();
+    for (int i = 0; i < 10; i++) {
+      journal.record(txid(0, i), 0, 1, 2, 3, 0, 0);
+    }
+
+    long[] records = new long[1];
+    try (JournalReader reader = new JournalReader(file)) {
+      assertFalse(reader.isClosed());
+      assertEquals(4, reader.getChunks());
+      for (long chunk = 0; chunk < reader.getChunks(); chunk++) {
+        reader.read(chunk, record -> records[0]++);
+      }
+    }
+    assertEquals(11, records[0]);
+    journal.close();
+  }
+
+  private static byte[] txid(int sender, int i) {
+    byte[] txid = new byte[32];
+    txid[0] = (byte) sender;
+    txid[1] = (byte) (i >>> 8);
+    txid[2] = (byte) i;
+    txid[31] = 1;
+    return txid;
+  }
+}
@@ -0,0 +1,118 @@
+package org.tron.common.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.Test;
+import org.tron.protos.Contract.AccountCreateContract;
+import org.tron.protos.Contract.FreezeBalanceContract;
+import org.tron.protos.Contract.TransferContract;
+import org.tron.protos.Contract.WithdrawBalanceContract;
+import org.tron.protos.Protocol.Transaction;
+import org.tron.protos.Protocol.Transaction.Contract;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+
+public class TransactionUtilsTest {
+
+  private final Random random = new Random(1);
+
+  @Test
+  public void testContractType() {
+    ByteString owner = bytes(21);
+    check(ContractType.AccountCreateContract, AccountCreateContract.newBuilder()
+        .setOwnerAddress(owner)
+        .setAccountName(ByteString.copyFromUtf8("stress"))
+        .build());
+    check(ContractType.TransferContract, TransferContract.newBuilder()
+        .setOwnerAddress(owner)
+        .setToAddress(bytes(21))
+        .setAmount(Long.MAX_VALUE)
+        .build());
+    check(ContractType.FreezeBalanceContract, FreezeBalanceContract.newBuilder()
+        .setOwnerAddress(owner)
+        .setFrozenBalance(1_000_000)
+        .setFrozenDuration(3)
+        .build());
+    check(ContractType.WithdrawBalanceContract, WithdrawBalanceContract.newBuilder()
+        .setOwnerAddress(owner)
+        .build());
+  }
+
+  @Test
+  public void testNoContract() {
+    Transaction transaction = Transaction.newBuilder()
+        .setRawData(raw())
+        .addSignature(bytes(65))
+        .build();
+    assertEquals(-1, TransactionUtils.getContractType(ByteBuffer.wrap(transaction.toByteArray())));
+    assertEquals(-1, TransactionUtils.getContractType(ByteBuffer.allocate(0)));
+  }
+
+  @Test
+  public void testContractWithoutParameter() {
+    // type 0 and no parameter: an empty contract message
+    Transaction transaction = Transaction.newBuilder()
+        .setRawData(raw().addContract(Contract.getDefaultInstance()))
+        .build();
+    assertEquals(0, TransactionUtils.getContractType(ByteBuffer.wrap(transaction.toByteArray())));
+  }
+
+  @Test
+  public void testTimestampAndContract() throws InvalidProtocolBufferException {
+    Contract first = Contract.newBuilder()
+        .setType(ContractType.TransferContract)
+        .setParameter(Any.pack(TransferContract.newBuilder().setAmount(1).build()))
+        .build();
+    Transaction.raw raw = raw()
+        .addContract(first)
+        .addContract(Contract.newBuilder().setType(ContractType.FreezeBalanceContract))
+        .build();
+    ByteBuffer buffer = ByteBuffer.wrap(raw.toByteArray());
+    assertEquals(raw.getTimestamp(), TransactionUtils.getTimestamp(buffer));
+    assertEquals(first, Contract.parseFrom(TransactionUtils.getContractSlice(buffer)));
+    assertEquals(0, buffer.position());
+
+    ByteBuffer empty = ByteBuffer.wrap(Transaction.raw.newBuilder()
+        .setRefBlockNum(1).build().toByteArray());
+    assertEquals(0, TransactionUtils.getTimestamp(empty));
+    assertNull(TransactionUtils.getContractSlice(empty));
+  }
+
+  /**
+   * Every field of raw_data set around the contract, and a signature after it.
+   */
+  private void check(ContractType type, Message parameter) {
+    Transaction transaction = Transaction.newBuilder()
+        .setRawData(raw().addContract(Contract.newBuilder()
+            .setType(type)
+            .setParameter(Any.pack(parameter))))
+        .addSignature(bytes(65))
+        .build();
+    ByteBuffer buffer = ByteBuffer.wrap(transaction.toByteArray());
+    assertEquals(type.name(), type.getNumber(), TransactionUtils.getContractType(buffer));
+    // the caller's buffer is left untouched
+    assertEquals(0, buffer.position());
+  }
+
+  private Transaction.raw.Builder raw() {
+    return Transaction.raw.newBuilder()
+        .setRefBlockBytes(bytes(2))
+        .setRefBlockNum(1_234_567)
+        .setRefBlockHash(bytes(8))
+        .setExpiration(System.currentTimeMillis() + 60_000)
+        .setData(bytes(200))
+        .setTimestamp(UniqueTimestamp.next());
+  }
+
+  private ByteString bytes(int length) {
+    byte[] bytes = new byte[length];
+    random.nextBytes(bytes);
+    return ByteString.copyFrom(bytes);
+  }
+}
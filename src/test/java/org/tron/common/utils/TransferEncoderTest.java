@@ -0,0 +1,76 @@
+package org.tron.common.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.util.Collections;
+import java.util.Random;
+import org.junit.Test;
+import org.tron.api.GrpcAPI.BlockReference;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.crypto.Hash;
+import org.tron.common.crypto.KeyTable;
+import org.tron.protos.Protocol.Transaction;
+import org.tron.service.WalletClient;
+
+public class TransferEncoderTest {
+
+  private static final long[] AMOUNTS = {0, 1, 127, 128, 16_384, 1_000_000, Long.MAX_VALUE};
+
+  private final Random random = new Random(1);
+  private final KeyTable keys = KeyTable.of(Collections.singletonList(new ECKey()));
+  private final TransactionBuilder builder = new TransactionBuilder(BlockReference.newBuilder()
+      .setBlockNum(1_234_567)
+      .setBlockHash(ByteString.copyFrom(randomBytes(32)))
+      .build(), TransactionBuilder.DEFAULT_EXPIRATION);
+
+  @Test
+  public void testWithoutTimestamp() throws InvalidProtocolBufferException {
+    for (long amount : AMOUNTS) {
+      check(amount, 0);
+    }
+  }
+
+  @Test
+  public void testWithTimestamp() throws InvalidProtocolBufferException {
+    for (long amount : AMOUNTS) {
+      check(amount, UniqueTimestamp.next());
+    }
+  }
+
+  private void check(long amount, long timestamp) throws InvalidProtocolBufferException {
+    byte[] owner = keys.getAddress(0);
+    byte[] to = randomBytes(KeyTable.ADDRESS_LENGTH);
+    TransferEncoder encoder = new TransferEncoder(builder);
+
+    long before = System.currentTimeMillis();
+    encoder.encode(owner, 0, to, 0, amount, timestamp);
+    long after = System.currentTimeMillis();
+    byte[] unsigned = encoder.toByteArray();
+    byte[] txid = encoder.hash().clone();
+    byte[] signed = encoder.sign(keys.newSigner(), 0).toByteArray();
+
+    // the expiration is the only field read from the clock, the expected one takes it over
+    long expiration = Transaction.parseFrom(unsigned).getRawData().getExpiration();
+    assertTrue(expiration >= before + builder.getExpiration()
+        && expiration <= after + builder.getExpiration());
+    Transaction.raw.Builder raw = builder
+        .createTransaction(WalletClient.createTransferContract(to, owner, amount))
+        .getRawData().toBuilder()
+        .setExpiration(expiration)
+        .setTimestamp(timestamp);
+    Transaction expected = Transaction.newBuilder().setRawData(raw).build();
+
+    assertArrayEquals(expected.toByteArray(), unsigned);
+    assertArrayEquals(Hash.sha256(expected.getRawData().toByteArray()), txid);
+    assertArrayEquals(keys.newSigner().sign(0, expected).toByteArray(), signed);
+  }
+
+  private byte[] randomBytes(int length) {
+    byte[] bytes = new byte[length];
+    random.nextBytes(bytes);
+    return bytes;
+  }
+}
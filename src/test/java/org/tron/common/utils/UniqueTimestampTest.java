@@ -0,0 +1,77 @@
+package org.tron.common.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class UniqueTimestampTest {
+
+  private static final int THREADS = 64;
+  private static final int CALLS = 160_000;
+
+  @Test
+  public void testNoCollision() throws InterruptedException {
+    long[][] stamps = new long[THREADS][CALLS];
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    for (int t = 0; t < THREADS; t++) {
+      long[] own = stamps[t];
+      executor.execute(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        for (int i = 0; i < CALLS; i++) {
+          own[i] = UniqueTimestamp.next();
+        }
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+
+    // every thread is strictly increasing, so a merge of the threads finds any duplicate
+    for (long[] own : stamps) {
+      for (int i = 1; i < CALLS; i++) {
+        assertTrue(own[i] > own[i - 1]);
+      }
+    }
+    int[] positions = new int[THREADS];
+    PriorityQueue<Integer> heads = new PriorityQueue<>(THREADS,
+        (a, b) -> Long.compare(stamps[a][positions[a]], stamps[b][positions[b]]));
+    for (int t = 0; t < THREADS; t++) {
+      heads.add(t);
+    }
+    long previous = Long.MIN_VALUE;
+    long collisions = 0;
+    long merged = 0;
+    while (!heads.isEmpty()) {
+      int t = heads.poll();
+      long stamp = stamps[t][positions[t]];
+      if (stamp == previous) {
+        collisions++;
+      }
+      previous = stamp;
+      merged++;
+      if (++positions[t] < CALLS) {
+        heads.add(t);
+      }
+    }
+    assertEquals((long) THREADS * CALLS, merged);
+    assertEquals(0, collisions);
+  }
+
+  @Test
+  public void testFollowsClock() {
+    long before = System.currentTimeMillis();
+    long stamp = UniqueTimestamp.next();
+    assertTrue(stamp / 1_000_000 >= before);
+  }
+}
@@ -0,0 +1,81 @@
+package org.tron.stress;
+
+import static org.junit.Assert.assertEquals;
+import static org.tron.stress.LoadProfile.Phase.hold;
+import static org.tron.stress.LoadProfile.Phase.pause;
+import static org.tron.stress.LoadProfile.Phase.ramp;
+import static org.tron.stress.LoadProfile.Phase.sine;
+import static org.tron.stress.LoadProfile.Phase.spike;
+import static org.tron.stress.LoadProfile.Phase.step;
+
+import com.typesafe.config.ConfigFactory;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class LoadProfileTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+  private static final double DELTA = 1e-6;
+
+  private final LoadProfile profile = new LoadProfile(Arrays.asList(
+      ramp(10 * SECOND, 0, 1000),
+      step(4 * SECOND, 100, 400, 4),
+      spike(10 * SECOND, 100, 5000, 2 * SECOND),
+      sine(4 * SECOND, 1000, 500, 4 * SECOND),
+      pause(2 * SECOND),
+      hold(SECOND, 300)));
+
+  @Test
+  public void testRateAt() {
+    assertEquals(0, profile.rateAt(0), DELTA);
+    assertEquals(500, profile.rateAt(5 * SECOND), DELTA);
+    // step: 100, 200, 300, 400
+    assertEquals(100, profile.rateAt(10 * SECOND), DELTA);
+    assertEquals(200, profile.rateAt(11 * SECOND), DELTA);
+    assertEquals(400, profile.rateAt(13 * SECOND + SECOND / 2), DELTA);
+    // spike: peak from 4s to 6s of the phase
+    assertEquals(100, profile.rateAt(14 * SECOND + 3 * SECOND), DELTA);
+    assertEquals(5000, profile.rateAt(14 * SECOND + 5 * SECOND), DELTA);
+    assertEquals(100, profile.rateAt(14 * SECOND + 6 * SECOND), DELTA);
+    // sine: mean at 0, mean + amplitude a quarter period later
+    assertEquals(1000, profile.rateAt(24 * SECOND), DELTA);
+    assertEquals(1500, profile.rateAt(25 * SECOND), DELTA);
+    assertEquals(500, profile.rateAt(27 * SECOND), DELTA);
+    assertEquals(0, profile.rateAt(28 * SECOND), DELTA);
+    assertEquals(300, profile.rateAt(30 * SECOND), DELTA);
+    // over
+    assertEquals(0, profile.rateAt(31 * SECOND), DELTA);
+  }
+
+  @Test
+  public void testPhases() {
+    assertEquals(31 * SECOND, profile.getDurationNanos());
+    assertEquals(0, profile.phaseAt(0));
+    assertEquals(1, profile.phaseAt(10 * SECOND));
+    assertEquals(5, profile.phaseAt(30 * SECOND));
+    assertEquals(6, profile.phaseAt(31 * SECOND));
+    assertEquals(5000, profile.getPeakRate(), DELTA);
+  }
+
+  @Test
+  public void testFromConfig() {
+    LoadProfile parsed = LoadProfile.fromConfig(ConfigFactory.parseString(
+        "profiles.test = ["
+            + "{ type = ramp, duration = 10s, from = 100, to = 200 },"
+            + "{ type = pause, duration = 500ms },"
+            + "{ type = hold, duration = 1m, rate = 50 }"
+            + "]"), "test");
+    assertEquals(3, parsed.getPhases().size());
+    assertEquals(150, parsed.rateAt(5 * SECOND), DELTA);
+    assertEquals(0, parsed.rateAt(10 * SECOND), DELTA);
+    assertEquals(50, parsed.rateAt(11 * SECOND), DELTA);
+    assertEquals(10 * SECOND + SECOND / 2 + 60 * SECOND, parsed.getDurationNanos());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownPhase() {
+    LoadProfile.fromConfig(ConfigFactory.parseString(
+        "profiles.test = [{ type = burst, duration = 1s }]"), "test");
+  }
+}
@@ -0,0 +1,81 @@
+package org.tron.stress;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.tron.api.GrpcAPI.BlockReference;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.crypto.KeyTable;
+import org.tron.common.utils.TransactionBuilder;
+import org.tron.protos.Protocol.Transaction;
+
+public class TransactionGeneratorTest {
+
+  private static final int KEYS = 3;
+  private static final int COUNT = 2_000;
+
+  private final TransactionBuilder builder = new TransactionBuilder(BlockReference.newBuilder()
+      .setBlockNum(1)
+      .setBlockHash(ByteString.copyFrom(new byte[32]))
+      .build(), TransactionBuilder.DEFAULT_EXPIRATION);
+
+  @Test
+  public void testStealing() throws Exception {
+    List<ECKey> keys = new ArrayList<>();
+    for (int i = 0; i < KEYS; i++) {
+      keys.add(new ECKey());
+    }
+    // one producer, the other consumers only ever steal from its ring
+    checkEveryTransactionOnce(new TransactionGenerator(KeyTable.of(keys),
+        Collections.emptyList(), 1, COUNT, builder, 1, 16), 4);
+    // more consumers than producers, each drains its own ring then steals
+    checkEveryTransactionOnce(new TransactionGenerator(KeyTable.of(keys),
+        Collections.emptyList(), 1, COUNT, builder, 2, 16), 5);
+  }
+
+  private void checkEveryTransactionOnce(TransactionGenerator generator, int consumers)
+      throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(consumers);
+    List<Future<List<Transaction>>> consumed = new ArrayList<>();
+    for (int i = 0; i < consumers; i++) {
+      int consumer = i;
+      consumed.add(executor.submit(() -> {
+        List<Transaction> seen = new ArrayList<>();
+        Iterator<Transaction> iterator = generator.iterator(consumer);
+        // ends once every ring is closed and drained
+        while (iterator.hasNext()) {
+          seen.add(iterator.next());
+        }
+        return seen;
+      }));
+    }
+    generator.start();
+
+    Set<ByteString> delivered = new HashSet<>();
+    for (Future<List<Transaction>> future : consumed) {
+      for (Transaction transaction : future.get(1, TimeUnit.MINUTES)) {
+        // every raw_data differs by its unique timestamp
+        assertTrue("delivered twice", delivered.add(transaction.getRawData().toByteString()));
+        assertEquals(1, transaction.getSignatureCount());
+      }
+    }
+    executor.shutdown();
+    assertEquals(COUNT, delivered.size());
+    assertEquals(COUNT, generator.getGenerated());
+    assertEquals(0, generator.getOccupancy());
+    assertFalse(generator.iterator(0).hasNext());
+  }
+}
@@ -0,0 +1,83 @@
+package org.tron.stress;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.tron.protos.Protocol.Transaction;
+
+public class TransactionRingTest {
+
+  private static final int CONSUMERS = 4;
+  private static final int COUNT = 100_000;
+
+  @Test
+  public void testEveryTransactionOnce() throws Exception {
+    // much smaller than the count, the producer wraps around while the consumers race
+    TransactionRing ring = new TransactionRing(16);
+    ExecutorService executor = Executors.newFixedThreadPool(CONSUMERS);
+    List<Future<List<Long>>> consumed = new ArrayList<>();
+    for (int i = 0; i < CONSUMERS; i++) {
+      consumed.add(executor.submit(() -> {
+        List<Long> seen = new ArrayList<>();
+        while (true) {
+          boolean done = ring.isDone();
+          Transaction transaction = ring.poll();
+          if (transaction != null) {
+            seen.add(transaction.getRawData().getTimestamp());
+          } else if (done) {
+            return seen;
+          }
+        }
+      }));
+    }
+    for (long i = 0; i < COUNT; i++) {
+      ring.put(transaction(i));
+    }
+    ring.close();
+
+    BitSet delivered = new BitSet(COUNT);
+    int total = 0;
+    for (Future<List<Long>> future : consumed) {
+      for (long timestamp : future.get(1, TimeUnit.MINUTES)) {
+        assertFalse("delivered twice: " + timestamp, delivered.get((int) timestamp));
+        delivered.set((int) timestamp);
+        total++;
+      }
+    }
+    executor.shutdown();
+    assertEquals(COUNT, total);
+    assertEquals(COUNT, delivered.cardinality());
+    assertTrue(ring.isDone());
+    assertNull(ring.poll());
+  }
+
+  @Test
+  public void testCapacity() {
+    TransactionRing ring = new TransactionRing(5);
+    assertEquals(8, ring.capacity());
+    for (long i = 0; i < 8; i++) {
+      ring.put(transaction(i));
+    }
+    assertEquals(8, ring.size());
+    assertEquals(0, ring.poll().getRawData().getTimestamp());
+    ring.close();
+    // closed, not drained yet
+    assertFalse(ring.isDone());
+  }
+
+  private static Transaction transaction(long i) {
+    return Transaction.newBuilder()
+        .setRawData(Transaction.raw.newBuilder().setTimestamp(i))
+        .build();
+  }
+}
@@ -0,0 +1,76 @@
+package org.tron.stress;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+
+public class WorkloadMixTest {
+
+  private final ContractGenerator transfer = generator(ContractType.TransferContract);
+  private final ContractGenerator asset = generator(ContractType.TransferAssetContract);
+  private final ContractGenerator vote = generator(ContractType.VoteWitnessContract);
+  private final WorkloadMix mix = new WorkloadMix(Arrays.asList(transfer, asset, vote),
+      Arrays.asList(70, 20, 10));
+
+  @Test
+  public void testWeights() {
+    // reduced by the gcd of the weights
+    assertEquals(10, mix.getTableLength());
+    for (int start = 0; start < 30; start += 10) {
+      Map<ContractGenerator, Integer> counts = new HashMap<>();
+      for (int n = start; n < start + 10; n++) {
+        counts.merge(mix.select(n), 1, Integer::sum);
+      }
+      assertEquals(7, (int) counts.get(transfer));
+      assertEquals(2, (int) counts.get(asset));
+      assertEquals(1, (int) counts.get(vote));
+    }
+  }
+
+  @Test
+  public void testInterleaved() {
+    // the two asset transfers are not back to back, not even across the end of the table
+    for (int n = 0; n < 20; n++) {
+      if (mix.select(n) == asset) {
+        assertNotSame(asset, mix.select(n + 1));
+      }
+    }
+  }
+
+  @Test
+  public void testEverySenderSeesTheMix() {
+    // 4 senders and a table of 10: selecting by n alone, sender 1 would only get odd slots
+    int senders = 4;
+    for (int sender = 0; sender < senders; sender++) {
+      Map<ContractGenerator, Integer> counts = new HashMap<>();
+      for (int round = 0; round < 10; round++) {
+        counts.merge(mix.select((long) round * senders + sender, senders), 1, Integer::sum);
+      }
+      assertEquals(7, (int) counts.get(transfer));
+      assertEquals(2, (int) counts.get(asset));
+      assertEquals(1, (int) counts.get(vote));
+    }
+  }
+
+  @Test
+  public void testParse() {
+    WorkloadMix parsed = WorkloadMix.parse("transfer:3, vote", name ->
+        name.equals("transfer") ? transfer : name.equals("vote") ? vote : null);
+    assertEquals(4, parsed.getTableLength());
+    assertEquals("TransferContract:3,VoteWitnessContract:1", parsed.toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownName() {
+    WorkloadMix.parse("transfer,burn", name -> name.equals("transfer") ? transfer : null);
+  }
+
+  private static ContractGenerator generator(ContractType type) {
+    return ContractGenerator.of(type, (n, key, keys) -> null);
+  }
+}